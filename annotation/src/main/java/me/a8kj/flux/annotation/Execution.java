@@ -3,5 +3,11 @@ package me.a8kj.flux.annotation;
 public enum Execution {
     SYNC,
     ASYNC,
-    VIRTUAL
+    VIRTUAL,
+    PARALLEL,
+    TICK,
+    /**
+     * Inline while the subscriber is fast, on a virtual thread while it is consistently slow.
+     */
+    ADAPTIVE
 }
\ No newline at end of file
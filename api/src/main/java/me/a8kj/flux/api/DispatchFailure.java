@@ -0,0 +1,27 @@
+package me.a8kj.flux.api;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Preallocated, stackless signals used to fail dispatch promises. {@link #SIGNAL} stands in
+ * for a subscriber failure when the engine is configured not to carry the original
+ * throwable, which is always delivered to the {@link ErrorHandler} first.
+ */
+public final class DispatchFailure extends CompletionException {
+
+    public static final DispatchFailure SIGNAL = new DispatchFailure("Subscriber failed; see the engine's ErrorHandler for details");
+
+    /**
+     * The TICK queue was full, so the invocation was dropped.
+     */
+    public static final DispatchFailure QUEUE_FULL = new DispatchFailure("Tick queue is full");
+
+    private DispatchFailure(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
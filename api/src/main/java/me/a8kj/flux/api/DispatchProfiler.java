@@ -0,0 +1,24 @@
+package me.a8kj.flux.api;
+
+import java.util.List;
+
+/**
+ * Samples one in every N publishes and times each of its subscribers individually.
+ * Unsampled publishes only pay for a thread-local counter check.
+ */
+public interface DispatchProfiler {
+
+    /**
+     * Sets the sampling interval; {@code 0} turns sampling off.
+     */
+    void sampleEvery(int publishes);
+
+    int sampleRate();
+
+    /**
+     * Returns up to {@code k} subscribers ordered by mean invocation time, slowest first.
+     */
+    List<SubscriberLatency> slowest(int k);
+
+    void reset();
+}
@@ -3,12 +3,45 @@ package me.a8kj.flux.api;
 import me.a8kj.flux.annotation.Execution;
 import me.a8kj.flux.template.concurrent.Promise;
 
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface Engine {
 
     <E extends Event> Promise<Void> publish(E event);
 
+    /**
+     * Publishes without a promise, for callers that would discard it. {@link Execution#TICK}
+     * invocations are then queued without allocating, and failures only reach the error handler.
+     */
+    default <E extends Event> void post(E event) {
+        publish(event);
+    }
+
+    <E extends Event> Scheduled publishLater(E event, long delay, TimeUnit unit);
+
+    /**
+     * Publishes a fresh event from the factory every period until the handle is cancelled.
+     */
+    <E extends Event> Scheduled publishEvery(Supplier<E> factory, long initialDelay, long period, TimeUnit unit);
+
+    /**
+     * Publishes every item the source emits, requesting more only as earlier dispatches finish
+     * so that at most {@code maxInFlight} are outstanding. The promise completes once the source
+     * has completed and its last dispatch is done, or fails with the source's error.
+     */
+    <E extends Event> Promise<Void> publishFrom(Flow.Publisher<? extends E> source, int maxInFlight);
+
+    /**
+     * Exposes events of exactly this type as a reactive stream. Each subscriber gets its own
+     * buffer of {@code bufferSize} events, drained as it requests more; {@code overflow} decides
+     * what happens when it falls that far behind. Subscribers are completed when the engine
+     * shuts down.
+     */
+    <E extends Event> Flow.Publisher<E> asPublisher(Class<E> eventType, int bufferSize, OverflowStrategy overflow);
+
     void register(Object listener);
 
     void unregister(Object listener);
@@ -19,6 +52,22 @@ public interface Engine {
 
     void addInterceptor(Interceptor interceptor);
 
+    /**
+     * Creates a child scope whose listeners receive everything published to this engine and
+     * that can be torn down in one call.
+     */
+    Scope createScope();
+
+    /**
+     * Runs queued {@link Execution#TICK} subscribers on the calling thread until the queue is
+     * empty or the budget is spent; whatever is left is carried over to the next call.
+     */
+    TickStats drain(long budgetNanos);
+
+    EngineMetrics metrics();
+
+    DispatchProfiler profiler();
+
     boolean isActive();
 
     void shutdown();
@@ -0,0 +1,37 @@
+package me.a8kj.flux.api;
+
+/**
+ * Read-only counters maintained by an {@link Engine}.
+ */
+public interface EngineMetrics {
+
+    /**
+     * Events of the given type dropped by rate limiting before dispatch.
+     */
+    long shed(Class<? extends Event> type);
+
+    /**
+     * Events of the given type postponed by rate limiting.
+     */
+    long deferred(Class<? extends Event> type);
+
+    /**
+     * Events of the given type dropped as repeats of an idempotency key seen within the window.
+     */
+    long duplicates(Class<? extends Event> type);
+
+    /**
+     * Times an ADAPTIVE subscription was moved off the publishing thread for being slow.
+     */
+    long adaptivePromotions();
+
+    /**
+     * Times an ADAPTIVE subscription was moved back inline after recovering.
+     */
+    long adaptiveDemotions();
+
+    /**
+     * ADAPTIVE subscriptions currently running off the publishing thread.
+     */
+    int adaptiveOffloaded();
+}
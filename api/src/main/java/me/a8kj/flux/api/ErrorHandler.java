@@ -0,0 +1,14 @@
+package me.a8kj.flux.api;
+
+/**
+ * Receives failures raised while dispatching an event.
+ * <p>
+ * The subscription is {@code null} when the failure came from an {@link Interceptor}.
+ * Implementations are called on the thread that ran the failing subscriber, which is a pool or
+ * virtual thread for asynchronous modes, and may be called concurrently; they should return quickly.
+ */
+@FunctionalInterface
+public interface ErrorHandler {
+
+    void handle(Throwable error, Subscription subscription, Event event);
+}
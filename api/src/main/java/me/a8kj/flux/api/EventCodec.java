@@ -0,0 +1,20 @@
+package me.a8kj.flux.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serialises a single event type to and from raw bytes for cross-engine transfer.
+ * <p>
+ * {@link #encode} writes at the buffer's current position and must throw
+ * {@link java.nio.BufferOverflowException} when the remaining space is too small.
+ * {@link #decode} receives a buffer positioned at the payload start and limited to its end;
+ * the buffer may be a view over shared memory, so it must not be retained after returning.
+ */
+public interface EventCodec<E extends Event> {
+
+    Class<E> type();
+
+    void encode(E event, ByteBuffer target);
+
+    E decode(ByteBuffer source);
+}
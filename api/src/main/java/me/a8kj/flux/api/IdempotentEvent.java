@@ -0,0 +1,12 @@
+package me.a8kj.flux.api;
+
+/**
+ * An event carrying a key that identifies its logical occurrence, so an engine configured to
+ * deduplicate its type can drop redeliveries before dispatch. Keys are compared with
+ * {@code equals} and {@code hashCode} and must not change once the event is published. An event
+ * whose key is {@code null} is always dispatched.
+ */
+public interface IdempotentEvent extends Event {
+
+    Object idempotencyKey();
+}
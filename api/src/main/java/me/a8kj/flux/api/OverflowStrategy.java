@@ -0,0 +1,23 @@
+package me.a8kj.flux.api;
+
+/**
+ * What a bounded stream buffer does with a new event when it is full.
+ */
+public enum OverflowStrategy {
+    /**
+     * Discards the new event.
+     */
+    DROP,
+    /**
+     * Discards the oldest buffered event to make room for the new one.
+     */
+    LATEST,
+    /**
+     * Blocks the publishing thread until the consumer makes room.
+     */
+    BLOCK,
+    /**
+     * Cancels the stream and signals an error to the consumer.
+     */
+    ERROR
+}
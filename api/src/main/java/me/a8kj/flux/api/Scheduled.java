@@ -0,0 +1,17 @@
+package me.a8kj.flux.api;
+
+/**
+ * Handle to a delayed or periodic publish.
+ */
+public interface Scheduled {
+
+    /**
+     * Prevents any further firing. Returns {@code false} if the publish already happened
+     * (one-shot) or the handle was cancelled before.
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isDone();
+}
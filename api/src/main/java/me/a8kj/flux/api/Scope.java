@@ -0,0 +1,19 @@
+package me.a8kj.flux.api;
+
+/**
+ * A child engine that owns its own listeners but publishes through, and is reached by, its parent.
+ * Closing it detaches every listener registered on it, and on its own child scopes, at once.
+ */
+public interface Scope extends Engine, AutoCloseable {
+
+    Engine parent();
+
+    /**
+     * Same as {@link #close()}; the parent engine keeps running.
+     */
+    @Override
+    void shutdown();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,21 @@
+package me.a8kj.flux.api;
+
+import me.a8kj.flux.annotation.Execution;
+
+/**
+ * Sampled latency of one subscription.
+ *
+ * @param declaringClass class declaring the subscriber method, or the consumer's class for
+ *                       subscriptions made through {@code subscribe}
+ * @param method         name of the subscriber method
+ */
+public record SubscriberLatency(
+        Class<?> declaringClass,
+        String method,
+        Class<?> eventType,
+        Execution mode,
+        long samples,
+        long meanNanos,
+        long maxNanos
+) {
+}
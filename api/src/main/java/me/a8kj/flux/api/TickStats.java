@@ -0,0 +1,14 @@
+package me.a8kj.flux.api;
+
+/**
+ * Outcome of one {@link Engine#drain(long)} call.
+ *
+ * @param invocations  subscriber invocations run during the tick
+ * @param backlog      invocations still queued and carried over to the next tick
+ * @param elapsedNanos time spent draining
+ * @param overrunNanos time spent beyond the requested budget
+ */
+public record TickStats(int invocations, long backlog, long elapsedNanos, long overrunNanos) {
+
+    public static final TickStats IDLE = new TickStats(0, 0L, 0L, 0L);
+}
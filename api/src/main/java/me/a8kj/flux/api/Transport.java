@@ -0,0 +1,24 @@
+package me.a8kj.flux.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Moves encoded event batches between engines on different nodes.
+ * <p>
+ * Implementations must not retain the buffer passed to {@link #send} after the call returns,
+ * and may invoke the {@link Receiver} from any thread.
+ */
+public interface Transport extends AutoCloseable {
+
+    void start(Receiver receiver);
+
+    void send(String peer, ByteBuffer batch);
+
+    @Override
+    void close();
+
+    @FunctionalInterface
+    interface Receiver {
+        void receive(String peer, ByteBuffer batch);
+    }
+}
@@ -0,0 +1,193 @@
+package me.a8kj.flux.bridge;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.EventCodec;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single-producer/single-consumer byte ring living in a memory-mapped file.
+ * <p>
+ * The header keeps the producer cursor and the consumer cursor on separate cache lines.
+ * Records are {@code [int length][int typeId][payload]}, aligned to 8 bytes; a negative
+ * length marks padding up to the end of the data region. Cursors are published with
+ * release/acquire semantics, so the payload bytes are visible before the cursor moves.
+ */
+public final class MappedRing implements AutoCloseable {
+
+    private static final int MAGIC = 0x464C5852;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int TAIL_OFFSET = 64;
+    private static final int HEAD_OFFSET = 128;
+    private static final int HEADER_SIZE = 192;
+    private static final int RECORD_HEADER = 8;
+    private static final int PADDING = -1;
+    private static final int MIN_CAPACITY = 4096;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(int typeId, ByteBuffer payload);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ByteBuffer data;
+    private final ByteBuffer writeView;
+    private final ByteBuffer readView;
+    private final int capacity;
+    private final int mask;
+
+    private long tail;
+    private long cachedHead;
+    private long head;
+
+    private MappedRing(FileChannel channel, MappedByteBuffer header, int capacity) {
+        this.channel = channel;
+        this.header = header;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.data = header.slice(HEADER_SIZE, capacity).order(ByteOrder.nativeOrder());
+        this.writeView = data.duplicate().order(ByteOrder.nativeOrder());
+        this.readView = data.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+        this.tail = (long) LONGS.getAcquire(header, TAIL_OFFSET);
+        this.head = (long) LONGS.getAcquire(header, HEAD_OFFSET);
+        this.cachedHead = head;
+    }
+
+    /**
+     * Opens (or creates) the ring file. Both sides must agree on the capacity,
+     * which must be a power of two of at least 4 KiB.
+     */
+    public static MappedRing open(Path path, int capacity) throws IOException {
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two >= " + MIN_CAPACITY);
+        }
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacity);
+            buffer.order(ByteOrder.nativeOrder());
+
+            if ((int) INTS.getAcquire(buffer, MAGIC_OFFSET) != MAGIC) {
+                INTS.set(buffer, CAPACITY_OFFSET, capacity);
+                LONGS.set(buffer, TAIL_OFFSET, 0L);
+                LONGS.set(buffer, HEAD_OFFSET, 0L);
+                INTS.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+            } else if ((int) INTS.get(buffer, CAPACITY_OFFSET) != capacity) {
+                throw new IllegalStateException("Ring " + path + " was created with capacity "
+                        + INTS.get(buffer, CAPACITY_OFFSET) + ", not " + capacity);
+            }
+            return new MappedRing(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Serialises the event straight into the mapped region. Returns {@code false} when the
+     * consumer has not yet freed enough space; the caller decides whether to retry or drop.
+     */
+    public <E extends Event> boolean offer(int typeId, EventCodec<E> codec, E event) {
+        while (true) {
+            long free = capacity - (tail - cachedHead);
+            if (free <= RECORD_HEADER) {
+                cachedHead = (long) LONGS.getAcquire(header, HEAD_OFFSET);
+                free = capacity - (tail - cachedHead);
+                if (free <= RECORD_HEADER) return false;
+            }
+
+            int index = (int) (tail & mask);
+            int contiguous = capacity - index;
+            int start = index + RECORD_HEADER;
+            int room = (int) Math.min(free, contiguous) - RECORD_HEADER;
+
+            writeView.clear();
+            writeView.position(start).limit(start + room);
+            try {
+                codec.encode(event, writeView);
+            } catch (BufferOverflowException overflow) {
+                long refreshed = (long) LONGS.getAcquire(header, HEAD_OFFSET);
+                if (refreshed != cachedHead) {
+                    cachedHead = refreshed;
+                    continue;
+                }
+                if (contiguous < free - RECORD_HEADER) {
+                    INTS.set(data, index, PADDING);
+                    tail += contiguous;
+                    LONGS.setRelease(header, TAIL_OFFSET, tail);
+                    continue;
+                }
+                return false;
+            }
+
+            int length = writeView.position() - start;
+            INTS.set(data, index, length);
+            INTS.set(data, index + 4, typeId);
+            tail += align(RECORD_HEADER + length);
+            LONGS.setRelease(header, TAIL_OFFSET, tail);
+            return true;
+        }
+    }
+
+    /**
+     * Hands up to {@code limit} pending records to the handler and then releases their space.
+     * The payload buffer is only valid for the duration of the callback.
+     */
+    public int poll(RecordHandler handler, int limit) {
+        long position = head;
+        long available = (long) LONGS.getAcquire(header, TAIL_OFFSET);
+        int count = 0;
+
+        try {
+            while (position < available && count < limit) {
+                int index = (int) (position & mask);
+                int length = (int) INTS.get(data, index);
+                if (length == PADDING) {
+                    position += capacity - index;
+                    continue;
+                }
+
+                int start = index + RECORD_HEADER;
+                readView.clear();
+                readView.position(start).limit(start + length);
+                position += align(RECORD_HEADER + length);
+                count++;
+                handler.onRecord((int) INTS.get(data, index + 4), readView);
+            }
+        } finally {
+            if (position != head) {
+                head = position;
+                LONGS.setRelease(header, HEAD_OFFSET, position);
+            }
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+}
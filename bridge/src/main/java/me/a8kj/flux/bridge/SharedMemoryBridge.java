@@ -0,0 +1,293 @@
+package me.a8kj.flux.bridge;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.EventCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Connects a local {@link Engine} to an engine in another JVM on the same host through
+ * a pair of {@link MappedRing} files, one per direction.
+ * <p>
+ * Exported types are serialised once, directly into the outbound ring, by a SYNC subscriber.
+ * A dedicated reader thread decodes accepted types straight from the inbound mapping and
+ * publishes them locally. Events received from the peer are never echoed back: they are
+ * remembered by identity until their local dispatch completes, whichever thread runs it.
+ */
+@Log
+public final class SharedMemoryBridge implements AutoCloseable {
+
+    private static final int MAX_TYPE_ID = 1024;
+    private static final int POLL_BATCH = 64;
+
+    private record Route<E extends Event>(int id, EventCodec<E> codec) {
+    }
+
+    private record Received(Event event) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Received received && received.event == event;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(event);
+        }
+    }
+
+    private final Engine engine;
+    private final MappedRing outbound;
+    private final MappedRing inbound;
+    private final EventCodec<?>[] accepted;
+    private final Map<Class<? extends Event>, Route<?>> exported;
+    private final long offerTimeoutNanos;
+    private final int idleSpins;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final Set<Received> echoes = ConcurrentHashMap.newKeySet();
+    private final MappedRing.RecordHandler handler = this::receive;
+
+    private volatile boolean running;
+    private volatile Thread reader;
+
+    private SharedMemoryBridge(Builder builder, MappedRing outbound, MappedRing inbound) {
+        this.engine = builder.engine;
+        this.outbound = outbound;
+        this.inbound = inbound;
+        this.offerTimeoutNanos = builder.offerTimeoutNanos;
+        this.idleSpins = builder.idleSpins;
+        this.exported = new HashMap<>();
+        this.accepted = new EventCodec<?>[MAX_TYPE_ID];
+
+        for (Class<? extends Event> type : builder.exports) {
+            exported.put(type, builder.route(type));
+        }
+        for (Class<? extends Event> type : builder.accepts) {
+            Route<?> route = builder.route(type);
+            accepted[route.id()] = route.codec();
+        }
+    }
+
+    public static Builder builder(Engine engine) {
+        return new Builder(Objects.requireNonNull(engine, "Engine cannot be null"));
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+
+        if (inbound != null) {
+            reader = Thread.ofPlatform()
+                    .name("flux-bridge-reader")
+                    .daemon(true)
+                    .unstarted(this::readLoop);
+            reader.start();
+        }
+        if (outbound != null) {
+            exported.values().forEach(this::attach);
+        }
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long received() {
+        return received.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+        }
+        if (reader != null) {
+            LockSupport.unpark(reader);
+            try {
+                reader.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (outboundLock()) {
+            if (outbound != null) outbound.close();
+        }
+        if (inbound != null) inbound.close();
+    }
+
+    private <E extends Event> void attach(Route<E> route) {
+        engine.subscribe(route.codec().type(), event -> forward(route, event), Execution.SYNC);
+    }
+
+    private <E extends Event> void forward(Route<E> route, E event) {
+        if (!running || (!echoes.isEmpty() && echoes.contains(new Received(event)))) return;
+
+        synchronized (outboundLock()) {
+            long deadline = 0L;
+            while (!outbound.offer(route.id(), route.codec(), event)) {
+                long now = System.nanoTime();
+                if (deadline == 0L) {
+                    deadline = now + offerTimeoutNanos;
+                } else if (now - deadline > 0 || !running) {
+                    dropped.increment();
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private Object outboundLock() {
+        return outbound != null ? outbound : this;
+    }
+
+    private void readLoop() {
+        int idle = 0;
+        while (running) {
+            if (inbound.poll(handler, POLL_BATCH) > 0) {
+                idle = 0;
+            } else if (idle < idleSpins) {
+                idle++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(1_000L);
+            }
+        }
+    }
+
+    private void receive(int typeId, ByteBuffer payload) {
+        EventCodec<?> codec = typeId >= 0 && typeId < MAX_TYPE_ID ? accepted[typeId] : null;
+        if (codec == null) return;
+
+        try {
+            Event event = codec.decode(payload);
+            if (exported.containsKey(event.getClass())) {
+                Received echo = new Received(event);
+                echoes.add(echo);
+                engine.publish(event).always(() -> echoes.remove(echo));
+            } else {
+                engine.publish(event);
+            }
+            received.increment();
+        } catch (RuntimeException e) {
+            log.warning("Failed to decode bridged event " + codec.type().getSimpleName() + ": " + e);
+        }
+    }
+
+    public static final class Builder {
+
+        private final Engine engine;
+        private final Map<Class<? extends Event>, Route<?>> routes = new HashMap<>();
+        private final Set<Class<? extends Event>> exports = new HashSet<>();
+        private final Set<Class<? extends Event>> accepts = new HashSet<>();
+        private Path outboundPath;
+        private Path inboundPath;
+        private int capacity = 1 << 20;
+        private long offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(10);
+        private int idleSpins = 10_000;
+
+        private Builder(Engine engine) {
+            this.engine = engine;
+        }
+
+        public Builder outbound(Path path) {
+            this.outboundPath = path;
+            return this;
+        }
+
+        public Builder inbound(Path path) {
+            this.inboundPath = path;
+            return this;
+        }
+
+        public Builder capacity(int bytes) {
+            this.capacity = bytes;
+            return this;
+        }
+
+        /**
+         * Registers the wire id for a type. Both sides must use the same id for the same type.
+         */
+        public <E extends Event> Builder codec(int id, EventCodec<E> codec) {
+            Objects.requireNonNull(codec, "Codec cannot be null");
+            if (id < 0 || id >= MAX_TYPE_ID) {
+                throw new IllegalArgumentException("Type id must be in [0, " + MAX_TYPE_ID + ")");
+            }
+            for (Route<?> route : routes.values()) {
+                if (route.id() == id) throw new IllegalArgumentException("Duplicate type id: " + id);
+            }
+            routes.put(codec.type(), new Route<>(id, codec));
+            return this;
+        }
+
+        /**
+         * Whitelists a type for sending to the peer.
+         */
+        public Builder export(Class<? extends Event> type) {
+            exports.add(type);
+            return this;
+        }
+
+        /**
+         * Whitelists a type for receiving from the peer; anything else is skipped.
+         */
+        public Builder accept(Class<? extends Event> type) {
+            accepts.add(type);
+            return this;
+        }
+
+        public Builder offerTimeout(long value, TimeUnit unit) {
+            this.offerTimeoutNanos = unit.toNanos(value);
+            return this;
+        }
+
+        /**
+         * Number of busy-spin iterations before the reader starts parking when idle.
+         * Higher values keep latency in the single-digit microseconds at the cost of a core.
+         */
+        public Builder idleSpins(int spins) {
+            this.idleSpins = spins;
+            return this;
+        }
+
+        public SharedMemoryBridge build() throws IOException {
+            if (outboundPath == null && inboundPath == null) {
+                throw new IllegalStateException("Bridge needs at least one direction");
+            }
+            exports.forEach(this::route);
+            accepts.forEach(this::route);
+
+            MappedRing out = outboundPath != null ? MappedRing.open(outboundPath, capacity) : null;
+            try {
+                MappedRing in = inboundPath != null ? MappedRing.open(inboundPath, capacity) : null;
+                return new SharedMemoryBridge(this, out, in);
+            } catch (IOException | RuntimeException e) {
+                if (out != null) out.close();
+                throw e;
+            }
+        }
+
+        private Route<?> route(Class<? extends Event> type) {
+            Route<?> route = routes.get(type);
+            if (route == null) {
+                throw new IllegalStateException("No codec registered for " + type.getName());
+            }
+            return route;
+        }
+    }
+}
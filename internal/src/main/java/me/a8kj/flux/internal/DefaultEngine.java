@@ -1,6 +1,5 @@
 package me.a8kj.flux.internal;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 import me.a8kj.flux.annotation.Execution;
 import me.a8kj.flux.annotation.Subscribe;
@@ -8,43 +7,131 @@ import me.a8kj.flux.api.*;
 import me.a8kj.flux.api.EventContext;
 import me.a8kj.flux.api.Event;
 import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.internal.dedup.DedupWindow;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.execution.strategy.AdaptiveStrategy;
 import me.a8kj.flux.internal.execution.strategy.AsyncStrategy;
+import me.a8kj.flux.internal.execution.strategy.ParallelStrategy;
 import me.a8kj.flux.internal.execution.strategy.SyncStrategy;
+import me.a8kj.flux.internal.execution.strategy.TickStrategy;
 import me.a8kj.flux.internal.execution.strategy.VirtualStrategy;
+import me.a8kj.flux.internal.flow.EventPublisher;
+import me.a8kj.flux.internal.flow.PublisherFeed;
+import me.a8kj.flux.internal.jfr.DispatchEvent;
+import me.a8kj.flux.internal.jfr.FlightRecording;
+import me.a8kj.flux.internal.profile.SamplingProfiler;
+import me.a8kj.flux.internal.schedule.TimingWheel;
+import me.a8kj.flux.internal.throttle.RateLimiter;
+import me.a8kj.flux.invoker.ConsumerInvoker;
+import me.a8kj.flux.invoker.FanOut;
+import me.a8kj.flux.invoker.FanOutCompiler;
 import me.a8kj.flux.invoker.InvokerProvider;
 import me.a8kj.flux.template.Cancellable;
 import me.a8kj.flux.template.concurrent.Promise;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Log
-@RequiredArgsConstructor
 public class DefaultEngine implements Engine {
 
-    private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<Subscription>> registry = new ConcurrentHashMap<>();
+    private static final Promise<Void> SKIPPED = Promise.completed(null);
+
+    /**
+     * The merged subscriptions for one event type at one registration version. Publishes are
+     * counted loosely until the plan is hot enough to get a generated {@link FanOut}.
+     */
+    private static final class Plan {
+        private final long version;
+        private final List<Subscription> subscriptions;
+        private final boolean inlinable;
+        private final AtomicBoolean compiling = new AtomicBoolean();
+        private int publishes;
+        private volatile FanOut fanOut;
+
+        private Plan(long version, List<Subscription> subscriptions, boolean inlinable, int publishes) {
+            this.version = version;
+            this.subscriptions = subscriptions;
+            this.inlinable = inlinable;
+            this.publishes = publishes;
+        }
+    }
+
+    private final AtomicLong planVersion = new AtomicLong();
+    private final ListenerGroup root = new ListenerGroup(planVersion);
+    private final ConcurrentHashMap<Class<?>, Plan> plans = new ConcurrentHashMap<>();
     private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
+    private final List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
     private final AtomicBoolean active = new AtomicBoolean(true);
     private final InvokerProvider invokerProvider;
+    private final EngineOptions options;
+    private final ErrorChannel errors;
+    private final ParallelStrategy parallel;
+    private final TickStrategy tick;
+    private final AdaptiveStrategy adaptive;
+    private final Map<Execution, ExecutionStrategy> strategies;
+    private final Map<Class<?>, RateLimiter> throttles;
+    private final Map<Class<?>, DedupWindow> dedup;
+    private final EngineMetrics metrics;
+    private final SamplingProfiler profiler;
+    private volatile TimingWheel timers;
 
-    private final Map<Execution, ExecutionStrategy> strategies = Map.of(
-            Execution.SYNC, new SyncStrategy(),
-            Execution.ASYNC, new AsyncStrategy(),
-            Execution.VIRTUAL, new VirtualStrategy()
-    );
+    public DefaultEngine(InvokerProvider invokerProvider) {
+        this(invokerProvider, EngineOptions.defaults());
+    }
+
+    DefaultEngine(InvokerProvider invokerProvider, EngineOptions options) {
+        this.invokerProvider = invokerProvider;
+        this.options = options;
+        this.errors = options.errors();
+        this.parallel = new ParallelStrategy(errors);
+        this.tick = new TickStrategy(errors, options.tickCapacity());
+        SyncStrategy sync = new SyncStrategy(errors);
+        VirtualStrategy virtual = new VirtualStrategy(errors);
+        this.adaptive = new AdaptiveStrategy(sync, virtual, options.adaptiveThresholdNanos());
+        this.throttles = options.throttles().isEmpty() ? null : Map.copyOf(options.throttles());
+        this.dedup = options.dedup().isEmpty() ? null : Map.copyOf(options.dedup());
+        this.metrics = new DefaultEngineMetrics(options.throttles(), options.dedup(), adaptive);
+        this.profiler = new SamplingProfiler(options.profileRate());
+        if (options.profileDumpNanos() > 0) {
+            profiler.dumpEvery(options.profileDumpNanos(), TimeUnit.NANOSECONDS, options.profileDumpTopK());
+        }
+        attach(profiler);
+        this.strategies = Map.of(
+                Execution.SYNC, sync,
+                Execution.ASYNC, new AsyncStrategy(errors),
+                Execution.VIRTUAL, virtual,
+                Execution.PARALLEL, parallel,
+                Execution.TICK, tick,
+                Execution.ADAPTIVE, adaptive
+        );
+    }
 
     @Override
     public void register(Object listener) {
+        register(root, listener);
+    }
+
+    void register(ListenerGroup group, Object listener) {
         if (!checkActive() || listener == null) return;
 
         Class<?> clazz = listener.getClass();
+        int registered = 0;
         for (Method method : clazz.getDeclaredMethods()) {
             Subscribe annotation = method.getAnnotation(Subscribe.class);
             if (annotation == null) continue;
@@ -53,6 +140,8 @@ public class DefaultEngine implements Engine {
 
             Class<?> eventType = method.getParameterTypes()[0];
             FastInvoker invoker = invokerProvider.provide(method);
+            if (annotation.mode() == Execution.ADAPTIVE) invoker = adaptive.track(invoker);
+            if (annotation.mode() == Execution.TICK) tick.prepare();
 
             Subscription sub = new Subscription(
                     listener,
@@ -62,23 +151,37 @@ public class DefaultEngine implements Engine {
                     annotation.ignoreCancelled()
             );
 
-            registry.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(sub);
-            registry.get(eventType).sort(Subscription::compareTo);
+            group.add(eventType, sub, true);
+            registered++;
         }
+        FlightRecording.registration("register", clazz, registered);
     }
 
     @Override
     public void unregister(Object listener) {
+        unregister(root, listener);
+    }
+
+    void unregister(ListenerGroup group, Object listener) {
         if (listener == null) return;
-        registry.values().forEach(subs -> subs.removeIf(sub -> sub.listener() == listener));
+        int removed = group.remove(listener, this::retire);
+        if (removed > 0) profiler.forget(sub -> sub.listener() == listener);
+        FlightRecording.registration("unregister", listener.getClass(), removed);
     }
 
     @Override
     public <E extends Event> void subscribe(Class<E> eventClass, Consumer<E> consumer, Execution mode) {
+        subscribe(root, eventClass, consumer, mode);
+    }
+
+    <E extends Event> void subscribe(ListenerGroup group, Class<E> eventClass, Consumer<E> consumer, Execution mode) {
         if (!checkActive()) return;
-        FastInvoker lambdaInvoker = (listener, event) -> consumer.accept((E) event);
+        FastInvoker lambdaInvoker = new ConsumerInvoker(consumer);
+        if (mode == Execution.ADAPTIVE) lambdaInvoker = adaptive.track(lambdaInvoker);
+        if (mode == Execution.TICK) tick.prepare();
         Subscription sub = new Subscription(null, lambdaInvoker, mode, 0, false);
-        registry.computeIfAbsent(eventClass, k -> new CopyOnWriteArrayList<>()).add(sub);
+        group.add(eventClass, sub, false);
+        FlightRecording.registration("subscribe", eventClass, 1);
     }
 
     @Override
@@ -91,45 +194,285 @@ public class DefaultEngine implements Engine {
         if (interceptor != null) this.interceptors.add(interceptor);
     }
 
+    /**
+     * Called once a scope's group has been closed. Retires its adaptive subscriptions and, when
+     * the profiler holds latencies that could still reference its listeners, drops those.
+     */
+    void closed(ListenerGroup group) {
+        group.forEach(this::retire);
+        if (profiler.isEmpty()) return;
+        Set<Subscription> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        group.forEach(removed::add);
+        profiler.forget(removed::contains);
+    }
+
+    private void retire(Subscription subscription) {
+        if (subscription.mode() == Execution.ADAPTIVE) adaptive.untrack(subscription.invoker());
+    }
+
+    void removeInterceptor(Interceptor interceptor) {
+        interceptors.remove(interceptor);
+    }
+
+    @Override
+    public Scope createScope() {
+        return createScope(this, root);
+    }
+
+    Scope createScope(Engine parent, ListenerGroup group) {
+        if (!checkActive() || group.isClosed()) throw new IllegalStateException("Cannot create a scope on a closed engine");
+        return new DefaultScope(this, parent, group.child());
+    }
+
+    @Override
+    public <E extends Event> Scheduled publishLater(E event, long delay, TimeUnit unit) {
+        return timers().schedule(event, delay, unit);
+    }
+
+    @Override
+    public <E extends Event> Scheduled publishEvery(Supplier<E> factory, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive");
+        return timers().scheduleAtFixedRate(factory, initialDelay, period, unit);
+    }
+
+    private TimingWheel timers() {
+        TimingWheel wheel = timers;
+        if (wheel == null) {
+            synchronized (this) {
+                wheel = timers;
+                if (wheel == null) {
+                    wheel = new TimingWheel(options.timerTickNanos(), this::post);
+                    timers = wheel;
+                    if (!checkActive()) wheel.close();
+                    else attach(wheel);
+                }
+            }
+        }
+        return wheel;
+    }
+
+    @Override
+    public TickStats drain(long budgetNanos) {
+        if (!checkActive()) return TickStats.IDLE;
+        return tick.drain(budgetNanos);
+    }
+
+    @Override
+    public <E extends Event> Promise<Void> publishFrom(Flow.Publisher<? extends E> source, int maxInFlight) {
+        return publishFrom(this, source, maxInFlight);
+    }
+
+    <E extends Event> Promise<Void> publishFrom(Engine target, Flow.Publisher<? extends E> source, int maxInFlight) {
+        if (source == null) throw new IllegalArgumentException("Source cannot be null");
+        PublisherFeed<E> feed = new PublisherFeed<>(target, maxInFlight);
+        source.subscribe(feed);
+        return feed.completion();
+    }
+
+    @Override
+    public <E extends Event> Flow.Publisher<E> asPublisher(Class<E> eventType, int bufferSize, OverflowStrategy overflow) {
+        return asPublisher(this, eventType, bufferSize, overflow);
+    }
+
+    /**
+     * Only live streams are attached, so they complete on shutdown while publishers that are no
+     * longer used can be collected.
+     */
+    <E extends Event> EventPublisher<E> asPublisher(Engine source, Class<E> eventType, int bufferSize, OverflowStrategy overflow) {
+        if (eventType == null || overflow == null) throw new IllegalArgumentException("Event type and overflow strategy cannot be null");
+        return new EventPublisher<>(source, eventType, bufferSize, overflow, this::attach, this::detach);
+    }
+
+    void attach(AutoCloseable resource) {
+        resources.add(resource);
+    }
+
+    void detach(AutoCloseable resource) {
+        resources.remove(resource);
+    }
+
     @Override
     public boolean isActive() {
         return active.get();
     }
 
+    @Override
+    public EngineMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public DispatchProfiler profiler() {
+        return profiler;
+    }
+
     @Override
     public <E extends Event> Promise<Void> publish(E event) {
+        return publish(event, true);
+    }
+
+    @Override
+    public <E extends Event> void post(E event) {
+        publish(event, false);
+    }
+
+    private <E extends Event> Promise<Void> publish(E event, boolean observed) {
+        if (!checkActive()) return Promise.completed(null);
+
+        if (throttles != null) {
+            RateLimiter limiter = throttles.get(event.getClass());
+            if (limiter != null) {
+                long verdict = limiter.acquire(System.nanoTime());
+                if (verdict != RateLimiter.ADMIT) {
+                    return verdict > 0 ? defer(event, verdict) : SKIPPED;
+                }
+            }
+        }
+        if (duplicate(event)) return SKIPPED;
+        return dispatch(event, observed);
+    }
+
+    /**
+     * Checks and records the idempotency key. Runs only once the event is sure to be dispatched,
+     * so a shed event's redelivery is not mistaken for a duplicate. Events without a key are not
+     * deduplicated.
+     */
+    private boolean duplicate(Event event) {
+        if (dedup == null || !(event instanceof IdempotentEvent idempotent)) return false;
+        DedupWindow window = dedup.get(event.getClass());
+        if (window == null) return false;
+        Object key = idempotent.idempotencyKey();
+        return key != null && !window.admit(key, System.nanoTime());
+    }
+
+    /**
+     * Dispatches a throttled event once its deferral is up, deduplicating it at that point. The
+     * promise follows that dispatch, or completes empty if the event turns out to be a duplicate
+     * or the engine shuts down first.
+     */
+    private Promise<Void> defer(Event event, long delayNanos) {
+        CompletableFuture<Void> deferred = new CompletableFuture<>();
+        timers().schedule(event, delayNanos, TimeUnit.NANOSECONDS, e -> {
+            if (duplicate(e)) {
+                deferred.complete(null);
+                return;
+            }
+            dispatch(e, true).unwrap().whenComplete((v, error) -> {
+                if (error == null) deferred.complete(null);
+                else deferred.completeExceptionally(error);
+            });
+        }, () -> deferred.complete(null));
+        return Promise.of(deferred);
+    }
+
+    /**
+     * Unless the dispatch is observed, or interceptors or JFR wait on its completion, TICK
+     * invocations are posted without futures and no completion is built for them.
+     */
+    private <E extends Event> Promise<Void> dispatch(E event, boolean observed) {
         if (!checkActive()) return Promise.completed(null);
 
-        long start = System.nanoTime();
-        List<Subscription> subscriptions = registry.get(event.getClass());
-        if (subscriptions == null || subscriptions.isEmpty()) return Promise.completed(null);
+        Plan plan = plan(event.getClass());
+        List<Subscription> subscriptions = plan.subscriptions;
+        if (subscriptions.isEmpty()) return Promise.completed(null);
 
+        DispatchEvent jfr = FlightRecording.dispatchStarted();
         EventContext<E> context = new EventContext<>(event);
 
         for (Interceptor interceptor : interceptors) {
             if (!interceptor.preDispatch(context)) return Promise.completed(null);
         }
 
-        List<Promise<Void>> promises = new ArrayList<>();
-        for (Subscription sub : subscriptions) {
-            if (context.isPropagationStopped()) break;
-            if (event instanceof Cancellable can && can.isCancelled() && !sub.ignoreCancelled()) continue;
+        boolean sampled = profiler.sample();
+        FanOut fanOut = plan.fanOut;
+        CompletableFuture<Void> completion;
+        int invoked;
+        if (fanOut != null && !sampled && !context.isPropagationStopped() && !FlightRecording.recordsInvocations()) {
+            Throwable failure = fanOut.dispatch(event);
+            completion = failure == null ? CompletableFuture.completedFuture(null) : CompletableFuture.failedFuture(failure);
+            invoked = fanOut.size();
+        } else {
+            if (fanOut == null) countPublish(plan, event.getClass());
+
+            boolean detached = !observed && jfr == null && interceptors.isEmpty();
+            List<Promise<Void>> promises = new ArrayList<>();
+            List<Subscription> tier = null;
+            for (Subscription sub : subscriptions) {
+                if (tier != null && (sub.mode() != Execution.PARALLEL || sub.priority() != tier.get(0).priority())) {
+                    promises.add(parallel.executeTier(tier, event));
+                    tier = null;
+                }
+
+                if (context.isPropagationStopped()) break;
+                if (event instanceof Cancellable can && can.isCancelled() && !sub.ignoreCancelled()) continue;
+
+                // ADAPTIVE keeps its state on the invoker, which instrumenting would hide.
+                boolean instrument = sampled && sub.mode() != Execution.ADAPTIVE;
+                Subscription target = instrument ? profiler.instrument(sub, event.getClass()) : sub;
+                if (sub.mode() == Execution.PARALLEL) {
+                    if (tier == null) tier = new ArrayList<>();
+                    tier.add(target);
+                    continue;
+                }
+
+                if (detached && sub.mode() == Execution.TICK) {
+                    tick.post(target, event);
+                    continue;
+                }
+                ExecutionStrategy strategy = strategies.get(sub.mode());
+                if (strategy != null) promises.add(strategy.execute(target, event));
+            }
+            if (tier != null) promises.add(parallel.executeTier(tier, event));
+            if (detached && promises.isEmpty()) return SKIPPED;
+
+            CompletableFuture<Void>[] futures = promises.stream()
+                    .map(Promise::unwrap)
+                    .toArray(CompletableFuture[]::new);
+            completion = CompletableFuture.allOf(futures);
+            invoked = futures.length;
+        }
 
-            ExecutionStrategy strategy = strategies.get(sub.mode());
-            if (strategy != null) promises.add(strategy.execute(sub, event));
+        Promise<Void> result = Promise.of(completion)
+                .onSuccess(v -> runPostDispatch(context));
+        if (jfr != null) {
+            int fanOutSize = invoked;
+            result.always(() -> FlightRecording.dispatched(jfr, event.getClass(), fanOutSize));
         }
+        return result;
+    }
+
+    /**
+     * Returns the merged subscriptions of the engine and all its scopes for the type, rebuilding
+     * the cached plan only when some registration or scope changed since it was built.
+     */
+    private Plan plan(Class<?> eventType) {
+        long version = planVersion.get();
+        Plan plan = plans.get(eventType);
+        if (plan != null && plan.version == version) return plan;
+
+        List<Subscription> merged = root.collect(eventType);
+        int threshold = options.fanOutThreshold();
+        boolean wasHot = plan != null && plan.compiling.get();
+        Plan next = new Plan(version, merged, threshold > 0 && FanOutCompiler.supports(merged), wasHot ? threshold : 0);
+        plans.put(eventType, next);
+        return next;
+    }
 
-        CompletableFuture<Void>[] futures = promises.stream()
-                .map(Promise::unwrap)
-                .toArray(CompletableFuture[]::new);
+    /**
+     * Generates the plan's fan-out in the background once it has seen enough publishes. A type
+     * that was already hot under its previous plan is regenerated on its first publish.
+     */
+    private void countPublish(Plan plan, Class<? extends Event> eventType) {
+        if (!plan.inlinable || plan.compiling.get()) return;
+        if (++plan.publishes < options.fanOutThreshold() || !plan.compiling.compareAndSet(false, true)) return;
 
-        return Promise.of(CompletableFuture.allOf(futures))
-                .onSuccess(v -> {
-                    runPostDispatch(context);
-                    long duration = System.nanoTime() - start;
-                    log.info(String.format("[Flux-Profile] %s dispatched in %.4f ms",
-                            event.getClass().getSimpleName(), duration / 1_000_000.0));
-                });
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                plan.fanOut = FanOutCompiler.compile(eventType, plan.subscriptions, errors::report);
+            } catch (Throwable t) {
+                log.warning("[Flux] Dispatching " + eventType.getName() + " through strategies: " + t);
+            }
+        });
     }
 
     private void runPostDispatch(EventContext<?> context) {
@@ -137,7 +480,7 @@ public class DefaultEngine implements Engine {
             try {
                 interceptor.postDispatch(context);
             } catch (Exception e) {
-                log.severe("Post-dispatch error: " + e.getMessage());
+                errors.report(e, null, context.getEvent());
             }
         }
     }
@@ -145,7 +488,15 @@ public class DefaultEngine implements Engine {
     @Override
     public void shutdown() {
         if (!active.getAndSet(false)) return;
-        registry.clear();
+        resources.forEach(r -> {
+            try {
+                r.close();
+            } catch (Exception ignored) {
+            }
+        });
+        resources.clear();
+        root.clear();
+        plans.clear();
         interceptors.clear();
         invokerProvider.clear();
         strategies.values().forEach(s -> {
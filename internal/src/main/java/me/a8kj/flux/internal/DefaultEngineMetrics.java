@@ -0,0 +1,51 @@
+package me.a8kj.flux.internal;
+
+import lombok.RequiredArgsConstructor;
+import me.a8kj.flux.api.EngineMetrics;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.internal.dedup.DedupWindow;
+import me.a8kj.flux.internal.execution.strategy.AdaptiveStrategy;
+import me.a8kj.flux.internal.throttle.RateLimiter;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+final class DefaultEngineMetrics implements EngineMetrics {
+
+    private final Map<Class<?>, RateLimiter> throttles;
+    private final Map<Class<?>, DedupWindow> dedup;
+    private final AdaptiveStrategy adaptive;
+
+    @Override
+    public long shed(Class<? extends Event> type) {
+        RateLimiter limiter = throttles.get(type);
+        return limiter == null ? 0L : limiter.shed();
+    }
+
+    @Override
+    public long deferred(Class<? extends Event> type) {
+        RateLimiter limiter = throttles.get(type);
+        return limiter == null ? 0L : limiter.deferred();
+    }
+
+    @Override
+    public long duplicates(Class<? extends Event> type) {
+        DedupWindow window = dedup.get(type);
+        return window == null ? 0L : window.duplicates();
+    }
+
+    @Override
+    public long adaptivePromotions() {
+        return adaptive.promotions();
+    }
+
+    @Override
+    public long adaptiveDemotions() {
+        return adaptive.demotions();
+    }
+
+    @Override
+    public int adaptiveOffloaded() {
+        return adaptive.offloaded();
+    }
+}
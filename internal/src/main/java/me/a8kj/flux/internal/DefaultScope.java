@@ -0,0 +1,162 @@
+package me.a8kj.flux.internal;
+
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.DispatchProfiler;
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.EngineMetrics;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Interceptor;
+import me.a8kj.flux.api.OverflowStrategy;
+import me.a8kj.flux.api.Scheduled;
+import me.a8kj.flux.api.Scope;
+import me.a8kj.flux.api.TickStats;
+import me.a8kj.flux.internal.flow.EventPublisher;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A listener group hanging off a {@link DefaultEngine}. Publishing, timers, tick draining and
+ * metrics all go to the owning engine; only registration is local.
+ */
+final class DefaultScope implements Scope {
+
+    private final DefaultEngine engine;
+    private final Engine parent;
+    private final ListenerGroup group;
+    private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
+    private final List<EventPublisher<?>> publishers = new CopyOnWriteArrayList<>();
+    private final List<Scope> children = new CopyOnWriteArrayList<>();
+
+    DefaultScope(DefaultEngine engine, Engine parent, ListenerGroup group) {
+        this.engine = engine;
+        this.parent = parent;
+        this.group = group;
+    }
+
+    @Override
+    public Engine parent() {
+        return parent;
+    }
+
+    @Override
+    public <E extends Event> Promise<Void> publish(E event) {
+        if (group.isClosed()) return Promise.completed(null);
+        return engine.publish(event);
+    }
+
+    @Override
+    public <E extends Event> void post(E event) {
+        if (!group.isClosed()) engine.post(event);
+    }
+
+    @Override
+    public <E extends Event> Scheduled publishLater(E event, long delay, TimeUnit unit) {
+        return engine.publishLater(event, delay, unit);
+    }
+
+    @Override
+    public <E extends Event> Scheduled publishEvery(Supplier<E> factory, long initialDelay, long period, TimeUnit unit) {
+        return engine.publishEvery(factory, initialDelay, period, unit);
+    }
+
+    @Override
+    public <E extends Event> Promise<Void> publishFrom(Flow.Publisher<? extends E> source, int maxInFlight) {
+        return engine.publishFrom(this, source, maxInFlight);
+    }
+
+    /**
+     * Like the engine's, but subscribers are completed when this scope closes.
+     */
+    @Override
+    public <E extends Event> Flow.Publisher<E> asPublisher(Class<E> eventType, int bufferSize, OverflowStrategy overflow) {
+        EventPublisher<E> publisher = engine.asPublisher(this, eventType, bufferSize, overflow);
+        publishers.add(publisher);
+        if (group.isClosed()) close();
+        return publisher;
+    }
+
+    @Override
+    public void register(Object listener) {
+        if (!group.isClosed()) engine.register(group, listener);
+    }
+
+    @Override
+    public void unregister(Object listener) {
+        engine.unregister(group, listener);
+    }
+
+    @Override
+    public <E extends Event> void subscribe(Class<E> eventClass, Consumer<E> consumer) {
+        subscribe(eventClass, consumer, Execution.SYNC);
+    }
+
+    @Override
+    public <E extends Event> void subscribe(Class<E> eventClass, Consumer<E> consumer, Execution mode) {
+        if (!group.isClosed()) engine.subscribe(group, eventClass, consumer, mode);
+    }
+
+    /**
+     * Adds an engine-wide interceptor that is removed again when this scope closes.
+     */
+    @Override
+    public void addInterceptor(Interceptor interceptor) {
+        if (interceptor == null || group.isClosed()) return;
+        interceptors.add(interceptor);
+        engine.addInterceptor(interceptor);
+    }
+
+    /**
+     * Creates a nested scope that is closed together with this one.
+     */
+    @Override
+    public Scope createScope() {
+        Scope child = engine.createScope(this, group);
+        children.add(child);
+        if (group.isClosed()) close();
+        return child;
+    }
+
+    @Override
+    public TickStats drain(long budgetNanos) {
+        return engine.drain(budgetNanos);
+    }
+
+    @Override
+    public EngineMetrics metrics() {
+        return engine.metrics();
+    }
+
+    @Override
+    public DispatchProfiler profiler() {
+        return engine.profiler();
+    }
+
+    @Override
+    public boolean isActive() {
+        return !group.isClosed() && engine.isActive();
+    }
+
+    @Override
+    public void shutdown() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        group.close();
+        children.forEach(Scope::close);
+        children.clear();
+        engine.closed(group);
+        interceptors.forEach(engine::removeInterceptor);
+        interceptors.clear();
+        publishers.forEach(EventPublisher::close);
+        publishers.clear();
+        if (parent instanceof DefaultScope scope) scope.children.remove(this);
+    }
+}
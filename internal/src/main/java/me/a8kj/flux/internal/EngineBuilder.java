@@ -3,19 +3,46 @@ package me.a8kj.flux.internal;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.ErrorHandler;
+import me.a8kj.flux.api.IdempotentEvent;
 import me.a8kj.flux.api.Interceptor;
+import me.a8kj.flux.internal.dedup.DedupWindow;
+import me.a8kj.flux.internal.error.AggregatingErrorHandler;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.error.LoggingErrorHandler;
+import me.a8kj.flux.internal.remote.RemoteLink;
+import me.a8kj.flux.internal.throttle.RateLimiter;
 import me.a8kj.flux.invoker.BBInvokerProvider;
+import me.a8kj.flux.invoker.BackgroundInvokerProvider;
 import me.a8kj.flux.invoker.InvokerProvider;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class EngineBuilder {
 
     private InvokerProvider invokerProvider;
+    private boolean backgroundInvokers;
     private final List<Interceptor> interceptors = new ArrayList<>();
+    private final List<RemoteLink.Builder> remotes = new ArrayList<>();
+    private final Map<Class<?>, RateLimiter> throttles = new HashMap<>();
+    private final Map<Class<?>, DedupWindow> dedup = new HashMap<>();
+    private int profileRate;
+    private long profileDumpNanos;
+    private int profileDumpTopK;
+    private ErrorHandler errorHandler;
+    private boolean stacklessFailures;
+    private long errorWindowNanos;
+    private int tickCapacity = EngineOptions.DEFAULT_TICK_CAPACITY;
+    private long timerTickNanos = EngineOptions.DEFAULT_TIMER_TICK_NANOS;
+    private int fanOutThreshold = EngineOptions.DEFAULT_FAN_OUT_THRESHOLD;
+    private long adaptiveThresholdNanos = EngineOptions.DEFAULT_ADAPTIVE_THRESHOLD_NANOS;
 
     public static EngineBuilder create() {
         return new EngineBuilder();
@@ -26,19 +53,176 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Registers listeners with method handle invokers and generates the optimized ones in the
+     * background, swapping each in when it is ready. The warm-up time is logged once all pending
+     * invokers are done. Ignored if the configured provider already is a
+     * {@link BackgroundInvokerProvider}.
+     */
+    public EngineBuilder backgroundInvokers(boolean background) {
+        this.backgroundInvokers = background;
+        return this;
+    }
+
     public EngineBuilder interceptor(Interceptor interceptor) {
         Objects.requireNonNull(interceptor, "Interceptor cannot be null");
         this.interceptors.add(interceptor);
         return this;
     }
 
+    /**
+     * Receives every subscriber and interceptor failure. Without one, the engine logs the first
+     * of each repeated failure per second and a count of the rest.
+     */
+    public EngineBuilder errorHandler(ErrorHandler handler) {
+        this.errorHandler = Objects.requireNonNull(handler, "Error handler cannot be null");
+        return this;
+    }
+
+    /**
+     * Logs a warning for every failure instead of aggregating repeats.
+     */
+    public EngineBuilder logErrors() {
+        return errorHandler(new LoggingErrorHandler());
+    }
+
+    /**
+     * Fails dispatch promises with the shared {@link me.a8kj.flux.api.DispatchFailure#SIGNAL}
+     * instead of the original throwable, which is still passed to the error handler.
+     */
+    public EngineBuilder stacklessFailures(boolean stackless) {
+        this.stacklessFailures = stackless;
+        return this;
+    }
+
+    /**
+     * Reports each repeated failure once per window and counts the rest. Logs them if no
+     * handler is set.
+     */
+    public EngineBuilder aggregateErrors(long window, TimeUnit unit) {
+        this.errorWindowNanos = unit.toNanos(window);
+        return this;
+    }
+
+    /**
+     * Number of pending TICK invocations the engine can hold between drains; a power of two.
+     */
+    public EngineBuilder tickQueueCapacity(int capacity) {
+        this.tickCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Granularity of the timing wheel behind publishLater and publishEvery.
+     */
+    public EngineBuilder timerResolution(long value, TimeUnit unit) {
+        if (value <= 0) throw new IllegalArgumentException("Timer resolution must be positive");
+        this.timerTickNanos = unit.toNanos(value);
+        return this;
+    }
+
+    /**
+     * Limits how fast events of exactly this type are dispatched. Excess events are shed or
+     * deferred at the top of publish, before any context is allocated or interceptor runs.
+     * A shed event's promise completes at once; a deferred one's completes with its dispatch.
+     * Deferred events are not throttled again when they fire, and dedup and interceptors see
+     * them only then, not at publish.
+     */
+    public EngineBuilder throttle(Class<? extends Event> type, RateLimiter limiter) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        Objects.requireNonNull(limiter, "Rate limiter cannot be null");
+        this.throttles.put(type, limiter);
+        return this;
+    }
+
+    /**
+     * Drops events of exactly this type whose idempotency key was already published within the
+     * window. Checked after throttling, so keys of shed events are not remembered.
+     */
+    public EngineBuilder deduplicate(Class<? extends IdempotentEvent> type, DedupWindow window) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        Objects.requireNonNull(window, "Dedup window cannot be null");
+        this.dedup.put(type, window);
+        return this;
+    }
+
+    /**
+     * Times every subscriber of one in every {@code publishes} publishes; adjustable later
+     * through {@link Engine#profiler()}.
+     */
+    public EngineBuilder profile(int publishes) {
+        if (publishes < 0) throw new IllegalArgumentException("Sample rate cannot be negative");
+        this.profileRate = publishes;
+        return this;
+    }
+
+    /**
+     * Logs the {@code topK} slowest sampled subscribers every period.
+     */
+    public EngineBuilder profileDump(long period, TimeUnit unit, int topK) {
+        this.profileDumpNanos = unit.toNanos(period);
+        this.profileDumpTopK = topK;
+        return this;
+    }
+
+    /**
+     * Number of publishes after which an event type whose subscribers are all SYNC gets a
+     * generated dispatcher calling each of them from its own call site. The dispatcher is
+     * regenerated whenever its subscriptions change; zero disables generation.
+     */
+    public EngineBuilder fanOutThreshold(int publishes) {
+        if (publishes < 0) throw new IllegalArgumentException("Fan-out threshold cannot be negative");
+        this.fanOutThreshold = publishes;
+        return this;
+    }
+
+    /**
+     * Sampled invocation time above which an ADAPTIVE subscription is moved off the publishing
+     * thread. It moves back once its samples stay under half of this.
+     */
+    public EngineBuilder adaptiveThreshold(long value, TimeUnit unit) {
+        if (value <= 0) throw new IllegalArgumentException("Adaptive threshold must be positive");
+        this.adaptiveThresholdNanos = unit.toNanos(value);
+        return this;
+    }
+
+    public EngineBuilder remote(RemoteLink.Builder remote) {
+        Objects.requireNonNull(remote, "Remote link cannot be null");
+        this.remotes.add(remote);
+        return this;
+    }
+
     public Engine build() {
         if (this.invokerProvider == null) {
             this.invokerProvider = new BBInvokerProvider();
         }
+        if (backgroundInvokers && !(invokerProvider instanceof BackgroundInvokerProvider)) {
+            this.invokerProvider = new BackgroundInvokerProvider(invokerProvider);
+        }
+
+        ErrorHandler handler = this.errorHandler;
+        if (errorWindowNanos > 0) {
+            handler = new AggregatingErrorHandler(handler != null ? handler : new LoggingErrorHandler(), errorWindowNanos);
+        } else if (handler == null) {
+            handler = new AggregatingErrorHandler(new LoggingErrorHandler(), EngineOptions.DEFAULT_ERROR_WINDOW_NANOS);
+        }
+
+        EngineOptions options = new EngineOptions(
+                new ErrorChannel(handler, stacklessFailures),
+                tickCapacity,
+                timerTickNanos,
+                Map.copyOf(throttles),
+                Map.copyOf(dedup),
+                profileRate,
+                profileDumpNanos,
+                profileDumpTopK,
+                fanOutThreshold,
+                adaptiveThresholdNanos
+        );
 
-        DefaultEngine engine = new DefaultEngine(invokerProvider);
+        DefaultEngine engine = new DefaultEngine(invokerProvider, options);
         interceptors.forEach(engine::addInterceptor);
+        remotes.forEach(remote -> engine.attach(remote.connect(engine)));
 
         return engine;
     }
@@ -0,0 +1,33 @@
+package me.a8kj.flux.internal;
+
+import me.a8kj.flux.internal.dedup.DedupWindow;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.throttle.RateLimiter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+record EngineOptions(
+        ErrorChannel errors,
+        int tickCapacity,
+        long timerTickNanos,
+        Map<Class<?>, RateLimiter> throttles,
+        Map<Class<?>, DedupWindow> dedup,
+        int profileRate,
+        long profileDumpNanos,
+        int profileDumpTopK,
+        int fanOutThreshold,
+        long adaptiveThresholdNanos
+) {
+
+    static final long DEFAULT_ERROR_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    static final int DEFAULT_TICK_CAPACITY = 1 << 16;
+    static final long DEFAULT_TIMER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    static final int DEFAULT_FAN_OUT_THRESHOLD = 10_000;
+    static final long DEFAULT_ADAPTIVE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static EngineOptions defaults() {
+        return new EngineOptions(ErrorChannel.aggregatedLog(DEFAULT_ERROR_WINDOW_NANOS), DEFAULT_TICK_CAPACITY, DEFAULT_TIMER_TICK_NANOS, Map.of(), Map.of(), 0, 0L, 0,
+                DEFAULT_FAN_OUT_THRESHOLD, DEFAULT_ADAPTIVE_THRESHOLD_NANOS);
+    }
+}
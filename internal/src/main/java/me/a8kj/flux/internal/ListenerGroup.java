@@ -0,0 +1,125 @@
+package me.a8kj.flux.internal;
+
+import me.a8kj.flux.api.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The subscriptions owned by one engine or scope, plus its child scopes. Every change bumps the
+ * version shared by the whole tree so cached dispatch plans know to rebuild.
+ */
+final class ListenerGroup {
+
+    private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<Subscription>> registry = new ConcurrentHashMap<>();
+    private final List<ListenerGroup> children = new CopyOnWriteArrayList<>();
+    private final ListenerGroup parent;
+    private final AtomicLong version;
+    private volatile boolean closed;
+
+    ListenerGroup(AtomicLong version) {
+        this(null, version);
+    }
+
+    private ListenerGroup(ListenerGroup parent, AtomicLong version) {
+        this.parent = parent;
+        this.version = version;
+    }
+
+    ListenerGroup child() {
+        ListenerGroup child = new ListenerGroup(this, version);
+        children.add(child);
+        version.incrementAndGet();
+        return child;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void add(Class<?> eventType, Subscription subscription, boolean sort) {
+        CopyOnWriteArrayList<Subscription> subs = registry.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>());
+        subs.add(subscription);
+        if (sort) subs.sort(Subscription::compareTo);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Removes the listener's subscriptions from this group, handing each one to {@code action}.
+     */
+    int remove(Object listener, Consumer<Subscription> action) {
+        int removed = 0;
+        for (CopyOnWriteArrayList<Subscription> subs : registry.values()) {
+            for (Subscription sub : subs) {
+                if (sub.listener() == listener && subs.remove(sub)) {
+                    action.accept(sub);
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) version.incrementAndGet();
+        return removed;
+    }
+
+    /**
+     * Detaches this group, and with it every descendant, from the tree. Nothing is walked:
+     * dispatch plans that still mention these subscriptions are dropped on their next rebuild.
+     */
+    void close() {
+        if (closed) return;
+        markClosed();
+        if (parent != null) parent.children.remove(this);
+        version.incrementAndGet();
+    }
+
+    private void markClosed() {
+        closed = true;
+        for (ListenerGroup child : children) {
+            child.markClosed();
+        }
+    }
+
+    /**
+     * Visits every subscription of this group and its descendants.
+     */
+    void forEach(Consumer<Subscription> action) {
+        for (List<Subscription> subs : registry.values()) {
+            subs.forEach(action);
+        }
+        for (ListenerGroup child : children) {
+            child.forEach(action);
+        }
+    }
+
+    void clear() {
+        registry.clear();
+        children.clear();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns this group's subscriptions for the type merged with those of its descendants, as
+     * an immutable list ordered by priority whether or not any scope contributes. Only called
+     * when a dispatch plan is rebuilt.
+     */
+    List<Subscription> collect(Class<?> eventType) {
+        List<Subscription> merged = new ArrayList<>();
+        gather(eventType, merged);
+        if (merged.isEmpty()) return List.of();
+
+        merged.sort(Subscription::compareTo);
+        return List.copyOf(merged);
+    }
+
+    private void gather(Class<?> eventType, List<Subscription> into) {
+        List<Subscription> own = registry.get(eventType);
+        if (own != null) into.addAll(own);
+        for (ListenerGroup child : children) {
+            child.gather(eventType, into);
+        }
+    }
+}
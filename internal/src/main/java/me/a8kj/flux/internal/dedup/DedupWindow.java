@@ -0,0 +1,269 @@
+package me.a8kj.flux.internal.dedup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers idempotency keys for a sliding time window and rejects repeats.
+ *
+ * <p>The window is split into buckets by arrival time. A key is a duplicate if any live bucket
+ * holds it; new keys go into the current bucket, and a bucket is replaced wholesale once it
+ * ages out, so expiry costs nothing per key. Keys are therefore remembered for at least the
+ * window and at most one bucket longer.</p>
+ *
+ * <p>{@link #exact} buckets are concurrent hash sets that stop recording once the window holds
+ * {@code maxKeys}: events past the bound are admitted but not remembered, and counted as
+ * {@link #unrecorded()}. {@link #probabilistic} buckets are Bloom filters of fixed size that
+ * never miss a duplicate but may drop a new event at roughly the configured false-positive rate.
+ * Their bit arrays are allocated once, up front, and cleared for reuse as buckets rotate.</p>
+ */
+public final class DedupWindow {
+
+    private static final int BUCKETS = 8;
+    private static final int MAX_WORDS = 1 << 20;
+    private static final int STRIPES = 64;
+
+    private final long bucketNanos;
+    private final int capacity;
+    private final int hashes;
+    private final AtomicReferenceArray<Bucket> ring = new AtomicReferenceArray<>(BUCKETS + 1);
+    private final long[][] filters;
+    private final AtomicInteger remembered = new AtomicInteger();
+    private final Object[] stripes;
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder unrecorded = new LongAdder();
+
+    private DedupWindow(long windowNanos, int capacity, int words, int hashes) {
+        if (windowNanos < BUCKETS) throw new IllegalArgumentException("Window is too short");
+        this.bucketNanos = windowNanos / BUCKETS;
+        this.capacity = capacity;
+        this.hashes = hashes;
+        this.stripes = new Object[words > 0 ? STRIPES : 0];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        this.filters = words > 0 ? new long[BUCKETS + 1][words] : null;
+    }
+
+    /**
+     * Remembers every key seen in the window, up to {@code maxKeys} at a time.
+     */
+    public static DedupWindow exact(long window, TimeUnit unit, int maxKeys) {
+        if (maxKeys <= 0) throw new IllegalArgumentException("Key bound must be positive");
+        return new DedupWindow(unit.toNanos(window), maxKeys, 0, 0);
+    }
+
+    /**
+     * Sizes one Bloom filter per bucket for {@code expectedKeys} distinct keys per window, so the
+     * chance of dropping a new event stays near {@code falsePositiveRate}. Each filter is capped
+     * at 8MB, and all of them are allocated here rather than on the publishing thread.
+     */
+    public static DedupWindow probabilistic(long window, TimeUnit unit, long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0) throw new IllegalArgumentException("Expected keys must be positive");
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        long perBucket = Math.max(1L, expectedKeys / BUCKETS);
+        double perFilter = falsePositiveRate / (BUCKETS + 1);
+        long bits = (long) Math.ceil(-perBucket * Math.log(perFilter) / (Math.log(2) * Math.log(2)));
+        long rounded = Long.highestOneBit(Math.max(Long.SIZE, bits));
+        if (rounded < bits) rounded <<= 1;
+        int words = (int) Math.min(MAX_WORDS, rounded >>> 6);
+        int hashes = Math.max(1, (int) Math.round((double) bits / perBucket * Math.log(2)));
+        return new DedupWindow(unit.toNanos(window), 0, words, hashes);
+    }
+
+    /**
+     * Returns true the first time a key is seen within the window and false for a duplicate.
+     */
+    public boolean admit(Object key, long now) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        for (int age = 1; age <= BUCKETS; age++) {
+            Bucket older = ring.get(index(epoch - age));
+            if (older != null && older.epoch == epoch - age && older.contains(key)) {
+                duplicates.increment();
+                return false;
+            }
+        }
+        if (!current(epoch).add(key)) {
+            duplicates.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long duplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Keys admitted while their bucket was full and therefore not remembered.
+     */
+    public long unrecorded() {
+        return unrecorded.sum();
+    }
+
+    private Bucket current(long epoch) {
+        int index = index(epoch);
+        Bucket bucket = ring.get(index);
+        // A bucket from a later epoch means this caller read the clock just before a rotation.
+        if (bucket != null && bucket.epoch >= epoch) return bucket;
+        if (filters != null) return rotateFilter(index, epoch);
+
+        while (true) {
+            ExactBucket fresh = new ExactBucket(epoch, this);
+            if (ring.compareAndSet(index, bucket, fresh)) {
+                recount();
+                return fresh;
+            }
+            bucket = ring.get(index);
+            if (bucket != null && bucket.epoch >= epoch) return bucket;
+        }
+    }
+
+    /**
+     * Reuses the slot's bit array for the new epoch. The array must be cleared before anyone can
+     * add to it, so rotations of one slot are serialized on the array itself.
+     */
+    private Bucket rotateFilter(int index, long epoch) {
+        long[] bits = filters[index];
+        synchronized (bits) {
+            Bucket bucket = ring.get(index);
+            if (bucket != null && bucket.epoch >= epoch) return bucket;
+            if (bucket != null) Arrays.fill(bits, 0L);
+            Bucket fresh = new BloomBucket(epoch, bits, hashes, stripes);
+            ring.set(index, fresh);
+            return fresh;
+        }
+    }
+
+    /**
+     * Resets the key count to what the live buckets hold, once per rotation, so adds that raced
+     * with a bucket being retired cannot make it drift.
+     */
+    private void recount() {
+        int total = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            if (ring.get(i) instanceof ExactBucket exact) total += exact.size.get();
+        }
+        remembered.set(total);
+    }
+
+    private static int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) BUCKETS + 1);
+    }
+
+    private abstract static sealed class Bucket permits ExactBucket, BloomBucket {
+
+        final long epoch;
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        abstract boolean contains(Object key);
+
+        /**
+         * @return false if the key was already present.
+         */
+        abstract boolean add(Object key);
+    }
+
+    private static final class ExactBucket extends Bucket {
+
+        private final Set<Object> keys = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger size = new AtomicInteger();
+        private final DedupWindow window;
+
+        ExactBucket(long epoch, DedupWindow window) {
+            super(epoch);
+            this.window = window;
+        }
+
+        @Override
+        boolean contains(Object key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        boolean add(Object key) {
+            if (window.remembered.get() >= window.capacity) {
+                if (keys.contains(key)) return false;
+                window.unrecorded.increment();
+                return true;
+            }
+            if (!keys.add(key)) return false;
+            size.incrementAndGet();
+            window.remembered.incrementAndGet();
+            return true;
+        }
+    }
+
+    private static final class BloomBucket extends Bucket {
+
+        private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] words;
+        private final int mask;
+        private final int hashes;
+        private final Object[] stripes;
+
+        BloomBucket(long epoch, long[] words, int hashes, Object[] stripes) {
+            super(epoch);
+            this.words = words;
+            this.mask = words.length * Long.SIZE - 1;
+            this.hashes = hashes;
+            this.stripes = stripes;
+        }
+
+        @Override
+        boolean contains(Object key) {
+            long hash = spread(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if (((long) WORDS.getAcquire(words, bit >>> 6) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Sets every probe bit; the key counts as new if any of them was still clear. Adds of
+         * the same key are serialized on its stripe, otherwise two racing threads could each
+         * set some of its bits first and both see it as new.
+         */
+        @Override
+        boolean add(Object key) {
+            long hash = spread(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            boolean changed = false;
+            synchronized (stripes[h1 & (stripes.length - 1)]) {
+                for (int i = 0; i < hashes; i++) {
+                    int bit = (h1 + i * h2) & mask;
+                    long flag = 1L << bit;
+                    if (((long) WORDS.getAndBitwiseOr(words, bit >>> 6, flag) & flag) == 0) changed = true;
+                }
+            }
+            return changed;
+        }
+
+        private static long spread(Object key) {
+            long h = key.hashCode() * 0x9e3779b97f4a7c15L;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb53fe1a85ec9L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package me.a8kj.flux.internal.error;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.ErrorHandler;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Subscription;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forwards the first failure of each (listener, error type, event type) combination per window
+ * to the delegate and only counts the repeats, reporting how many were suppressed when the
+ * window closes.
+ */
+@Log
+public final class AggregatingErrorHandler implements ErrorHandler {
+
+    private record Key(Class<?> source, Class<?> error, Class<?> event) {
+    }
+
+    private static final class Window {
+        private final AtomicLong start = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+        private final String summary;
+
+        private Window(Key key, Subscription subscription) {
+            this.summary = String.format("%s from %s on %s",
+                    key.error().getSimpleName(),
+                    subscription == null ? "interceptor" : LoggingErrorHandler.describe(subscription),
+                    key.event().getSimpleName());
+        }
+    }
+
+    private final ErrorHandler delegate;
+    private final long windowNanos;
+    private final ConcurrentMap<Key, Window> windows = new ConcurrentHashMap<>();
+
+    public AggregatingErrorHandler(ErrorHandler delegate, long windowNanos) {
+        if (windowNanos <= 0) throw new IllegalArgumentException("Window must be positive");
+        this.delegate = delegate;
+        this.windowNanos = windowNanos;
+    }
+
+    @Override
+    public void handle(Throwable error, Subscription subscription, Event event) {
+        Class<?> source = subscription == null || subscription.listener() == null
+                ? null
+                : subscription.listener().getClass();
+        Window window = windows.computeIfAbsent(new Key(source, error.getClass(), event.getClass()),
+                key -> new Window(key, subscription));
+
+        long now = System.nanoTime();
+        long start = window.start.get();
+        if ((start != Long.MIN_VALUE && now - start < windowNanos) || !window.start.compareAndSet(start, now)) {
+            suppress(window, now);
+            return;
+        }
+
+        flush(window);
+        delegate.handle(error, subscription, event);
+    }
+
+    /**
+     * Counts a repeat; the first one in a window schedules the report for when it closes, so a
+     * burst that stops is still accounted for.
+     */
+    private void suppress(Window window, long now) {
+        if (window.suppressed.getAndIncrement() != 0) return;
+        long remaining = Math.max(0L, window.start.get() + windowNanos - now);
+        CompletableFuture.delayedExecutor(remaining, TimeUnit.NANOSECONDS).execute(() -> flush(window));
+    }
+
+    private void flush(Window window) {
+        long repeats = window.suppressed.getAndSet(0);
+        if (repeats > 0) {
+            log.warning(String.format("[Flux] Suppressed %d repeated %s", repeats, window.summary));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.a8kj.flux.internal.error;
+
+import lombok.RequiredArgsConstructor;
+import me.a8kj.flux.api.DispatchFailure;
+import me.a8kj.flux.api.ErrorHandler;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.concurrent.CompletableFuture;
+
+@RequiredArgsConstructor
+public final class ErrorChannel {
+
+    private final ErrorHandler handler;
+    private final boolean stackless;
+
+    /**
+     * Logs the first of each repeated failure per window and a count of the rest when the
+     * window closes. The engine default.
+     */
+    public static ErrorChannel aggregatedLog(long windowNanos) {
+        return new ErrorChannel(new AggregatingErrorHandler(new LoggingErrorHandler(), windowNanos), false);
+    }
+
+    /**
+     * Hands the original failure to the handler and returns what the dispatch promise
+     * should be completed with.
+     */
+    public Throwable report(Throwable error, Subscription subscription, Event event) {
+        try {
+            handler.handle(error, subscription, event);
+        } catch (Throwable ignored) {
+        }
+        return stackless ? DispatchFailure.SIGNAL : error;
+    }
+
+    public Promise<Void> fail(Throwable error, Subscription subscription, Event event) {
+        return Promise.of(CompletableFuture.failedFuture(report(error, subscription, event)));
+    }
+}
@@ -0,0 +1,22 @@
+package me.a8kj.flux.internal.error;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.ErrorHandler;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Subscription;
+
+@Log
+public final class LoggingErrorHandler implements ErrorHandler {
+
+    @Override
+    public void handle(Throwable error, Subscription subscription, Event event) {
+        String source = subscription == null ? "interceptor" : describe(subscription);
+        log.warning(String.format("[Flux] %s failed on %s: %s",
+                source, event.getClass().getSimpleName(), error));
+    }
+
+    static String describe(Subscription subscription) {
+        Object listener = subscription.listener();
+        return listener == null ? "lambda subscriber" : listener.getClass().getName();
+    }
+}
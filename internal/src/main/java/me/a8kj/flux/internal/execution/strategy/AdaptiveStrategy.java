@@ -0,0 +1,146 @@
+package me.a8kj.flux.internal.execution.strategy;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.api.FastInvoker;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a subscription inline while it is fast and offloads it while it is slow.
+ *
+ * <p>Every {@link #SAMPLE_EVERY}th call of a {@link #track tracked} invoker is timed, wherever it
+ * runs. {@link #PROMOTE_AFTER} consecutive samples over the threshold move the subscription to
+ * the offload strategy; {@link #DEMOTE_AFTER} consecutive samples under half of it move it back.
+ * The gap between the two keeps a handler hovering near the threshold from flapping.</p>
+ */
+@Log
+public class AdaptiveStrategy implements ExecutionStrategy {
+
+    static final int SAMPLE_EVERY = 8;
+    static final int PROMOTE_AFTER = 3;
+    static final int DEMOTE_AFTER = 8;
+
+    private final ExecutionStrategy inline;
+    private final ExecutionStrategy offload;
+    private final long thresholdNanos;
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+    private final AtomicInteger offloaded = new AtomicInteger();
+
+    public AdaptiveStrategy(ExecutionStrategy inline, ExecutionStrategy offload, long thresholdNanos) {
+        if (thresholdNanos <= 0) throw new IllegalArgumentException("Threshold must be positive");
+        this.inline = inline;
+        this.offload = offload;
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    /**
+     * Wraps the invoker of a new ADAPTIVE subscription so its calls are sampled. The returned
+     * invoker carries the subscription's state and must be the one stored in it.
+     */
+    public FastInvoker track(FastInvoker invoker) {
+        return new Tracked(invoker);
+    }
+
+    /**
+     * Stops counting a removed subscription's invoker as offloaded and freezes its state.
+     */
+    public void untrack(FastInvoker invoker) {
+        if (invoker instanceof Tracked tracked) tracked.retire();
+    }
+
+    @Override
+    public Promise<Void> execute(Subscription subscription, Event event) {
+        if (subscription.invoker() instanceof Tracked tracked && tracked.offloaded) {
+            return offload.execute(subscription, event);
+        }
+        return inline.execute(subscription, event);
+    }
+
+    public long promotions() {
+        return promotions.sum();
+    }
+
+    public long demotions() {
+        return demotions.sum();
+    }
+
+    public int offloaded() {
+        return offloaded.get();
+    }
+
+    private final class Tracked implements FastInvoker {
+
+        private final FastInvoker delegate;
+        private volatile boolean offloaded;
+        private boolean retired;
+        private int calls;
+        private int slow;
+        private int fast;
+
+        private Tracked(FastInvoker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void invoke(Object listener, Event event) throws Throwable {
+            // Racy on purpose: a lost increment only shifts which call gets sampled.
+            if (++calls % SAMPLE_EVERY != 0) {
+                delegate.invoke(listener, event);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                delegate.invoke(listener, event);
+            } finally {
+                observe(listener, System.nanoTime() - start);
+            }
+        }
+
+        private synchronized void observe(Object listener, long nanos) {
+            if (retired) return;
+            if (nanos > thresholdNanos) {
+                fast = 0;
+                if (!offloaded && ++slow >= PROMOTE_AFTER) {
+                    switchTo(true, listener, nanos);
+                }
+            } else {
+                slow = 0;
+                if (offloaded && nanos < thresholdNanos / 2 && ++fast >= DEMOTE_AFTER) {
+                    switchTo(false, listener, nanos);
+                } else if (nanos >= thresholdNanos / 2) {
+                    fast = 0;
+                }
+            }
+        }
+
+        private synchronized void retire() {
+            if (retired) return;
+            retired = true;
+            if (offloaded) AdaptiveStrategy.this.offloaded.decrementAndGet();
+        }
+
+        private void switchTo(boolean offload, Object listener, long nanos) {
+            offloaded = offload;
+            slow = 0;
+            fast = 0;
+            if (offload) {
+                promotions.increment();
+                AdaptiveStrategy.this.offloaded.incrementAndGet();
+            } else {
+                demotions.increment();
+                AdaptiveStrategy.this.offloaded.decrementAndGet();
+            }
+            log.info(String.format("[Flux] %s %s (last sample %dus)",
+                    offload ? "Offloading" : "Inlining",
+                    listener != null ? listener.getClass().getName() : delegate.getClass().getName(),
+                    TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.a8kj.flux.internal.execution.strategy;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.jfr.FlightRecording;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs every subscriber of one priority tier across a work-stealing pool and blocks the
+ * publisher until the whole tier has finished, so tiers still execute strictly in order.
+ */
+public class ParallelStrategy implements ExecutionStrategy, AutoCloseable {
+
+    private final ErrorChannel errors;
+    private final ForkJoinPool pool;
+
+    public ParallelStrategy(ErrorChannel errors) {
+        this(errors, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelStrategy(ErrorChannel errors, int parallelism) {
+        this.errors = errors;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public Promise<Void> execute(Subscription subscription, Event event) {
+        return executeTier(List.of(subscription), event);
+    }
+
+    public Promise<Void> executeTier(List<Subscription> tier, Event event) {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        if (tier.size() == 1) {
+            run(tier.get(0), event, failure);
+        } else {
+            pool.invoke(new TierTask(tier, 0, tier.size(), event, failure));
+        }
+
+        Throwable error = failure.get();
+        return error == null ? Promise.completed(null) : Promise.of(CompletableFuture.failedFuture(error));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void run(Subscription subscription, Event event, AtomicReference<Throwable> failure) {
+        try {
+            FlightRecording.invoke(subscription, event);
+        } catch (Throwable t) {
+            failure.compareAndSet(null, errors.report(t, subscription, event));
+        }
+    }
+
+    private final class TierTask extends RecursiveAction {
+
+        private final List<Subscription> tier;
+        private final int from;
+        private final int to;
+        private final Event event;
+        private final AtomicReference<Throwable> failure;
+
+        private TierTask(List<Subscription> tier, int from, int to, Event event, AtomicReference<Throwable> failure) {
+            this.tier = tier;
+            this.from = from;
+            this.to = to;
+            this.event = event;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                run(tier.get(from), event, failure);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TierTask(tier, from, mid, event, failure), new TierTask(tier, mid, to, event, failure));
+        }
+    }
+}
@@ -1,23 +1,26 @@
 package me.a8kj.flux.internal.execution.strategy;
 
 
+import lombok.RequiredArgsConstructor;
 import me.a8kj.flux.api.Event;
 import me.a8kj.flux.api.Subscription;
 import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.jfr.FlightRecording;
 import me.a8kj.flux.template.concurrent.Promise;
 
-import java.util.concurrent.CompletableFuture;
-
+@RequiredArgsConstructor
 public class SyncStrategy implements ExecutionStrategy {
+
+    private final ErrorChannel errors;
+
     @Override
     public Promise<Void> execute(Subscription subscription, Event event) {
         try {
-            subscription.invoker().invoke(subscription.listener(), event);
+            FlightRecording.invoke(subscription, event);
             return Promise.completed(null);
         } catch (Throwable t) {
-            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
-            failedFuture.completeExceptionally(t);
-            return Promise.of(failedFuture);
+            return errors.fail(t, subscription, event);
         }
     }
 }
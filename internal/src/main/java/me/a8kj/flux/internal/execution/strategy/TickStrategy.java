@@ -0,0 +1,219 @@
+package me.a8kj.flux.internal.execution.strategy;
+
+import me.a8kj.flux.api.DispatchFailure;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.api.TickStats;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.jfr.FlightRecording;
+import me.a8kj.flux.internal.jfr.QueueWaitEvent;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parks invocations in a preallocated multi-producer/single-consumer ring until the owning
+ * tick thread calls {@link #drain(long)}.
+ * <p>
+ * Each slot carries a sequence number: producers claim a slot by CAS on the tail and publish
+ * it by releasing {@code position + 1}; the consumer frees it by releasing
+ * {@code position + capacity}. No nodes are allocated per enqueue. The ring itself is only
+ * allocated once something subscribes in TICK mode, and invocations still queued when the
+ * strategy is closed have their futures cancelled. {@link #post(Subscription, Event)} queues
+ * without a future at all, for dispatches whose completion nobody waits on.
+ */
+public class TickStrategy implements ExecutionStrategy, AutoCloseable {
+
+    private static final class Ring {
+        private final AtomicLongArray sequences;
+        private final Subscription[] subscriptions;
+        private final Event[] events;
+        private final CompletableFuture<?>[] futures;
+        private final QueueWaitEvent[] waits;
+
+        private Ring(int capacity) {
+            this.sequences = new AtomicLongArray(capacity);
+            this.subscriptions = new Subscription[capacity];
+            this.events = new Event[capacity];
+            this.futures = new CompletableFuture<?>[capacity];
+            this.waits = new QueueWaitEvent[capacity];
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+    }
+
+    private static final Promise<Void> DONE = Promise.completed(null);
+    private static final Promise<Void> REJECTED = Promise.of(CompletableFuture.failedFuture(DispatchFailure.QUEUE_FULL));
+
+    private final ErrorChannel errors;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile Ring ring;
+    private volatile long head;
+    private volatile boolean closed;
+
+    public TickStrategy(ErrorChannel errors, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Tick queue capacity must be a power of two");
+        }
+        this.errors = errors;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Allocates the ring if nothing has yet. Called when a TICK subscriber is registered so the
+     * first publish does not pay for it.
+     */
+    public void prepare() {
+        ring();
+    }
+
+    @Override
+    public Promise<Void> execute(Subscription subscription, Event event) {
+        if (closed) return DONE;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        return enqueue(subscription, event, future) ? Promise.of(future) : REJECTED;
+    }
+
+    /**
+     * Queues an invocation without allocating a future; failures only reach the error handler.
+     * Returns {@code false} if the strategy is closed or the ring is full.
+     */
+    public boolean post(Subscription subscription, Event event) {
+        return !closed && enqueue(subscription, event, null);
+    }
+
+    private boolean enqueue(Subscription subscription, Event event, CompletableFuture<Void> future) {
+        Ring ring = ring();
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = ring.sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    ring.subscriptions[index] = subscription;
+                    ring.events[index] = event;
+                    ring.futures[index] = future;
+                    ring.waits[index] = FlightRecording.enqueued();
+                    ring.sequences.setRelease(index, position + 1);
+                    // close() may already have swept the ring
+                    if (closed && future != null) future.cancel(false);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                errors.report(DispatchFailure.QUEUE_FULL, subscription, event);
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TickStats drain(long budgetNanos) {
+        if (!draining.compareAndSet(false, true)) {
+            throw new IllegalStateException("drain() is already running on another thread");
+        }
+
+        long start = System.nanoTime();
+        long now = start;
+        long position = head;
+        int invocations = 0;
+        Ring ring = this.ring;
+        try {
+            while (ring != null && !closed) {
+                int index = (int) (position & mask);
+                if (ring.sequences.getAcquire(index) != position + 1) break;
+
+                Subscription subscription = ring.subscriptions[index];
+                Event event = ring.events[index];
+                CompletableFuture<Void> future = (CompletableFuture<Void>) ring.futures[index];
+                QueueWaitEvent queued = ring.waits[index];
+                release(ring, index, position);
+                head = ++position;
+
+                FlightRecording.dequeued(queued, subscription, event);
+                try {
+                    FlightRecording.invoke(subscription, event);
+                    if (future != null) future.complete(null);
+                } catch (Throwable t) {
+                    Throwable failure = errors.report(t, subscription, event);
+                    if (future != null) future.completeExceptionally(failure);
+                }
+                invocations++;
+
+                now = System.nanoTime();
+                if (now - start >= budgetNanos) break;
+            }
+        } finally {
+            if (closed) cancelQueued();
+            draining.set(false);
+        }
+
+        long elapsed = now - start;
+        return new TickStats(invocations, backlog(), elapsed, Math.max(0L, elapsed - budgetNanos));
+    }
+
+    public long backlog() {
+        return Math.max(0L, tail.get() - head);
+    }
+
+    /**
+     * Stops accepting invocations and cancels the futures of those still queued. If a drain is
+     * running, it does the cancelling once it returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            cancelQueued();
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void cancelQueued() {
+        Ring ring = this.ring;
+        if (ring == null) return;
+
+        long position = head;
+        while (true) {
+            int index = (int) (position & mask);
+            if (ring.sequences.getAcquire(index) != position + 1) break;
+            CompletableFuture<?> future = ring.futures[index];
+            release(ring, index, position);
+            head = ++position;
+            if (future != null) future.cancel(false);
+        }
+    }
+
+    private void release(Ring ring, int index, long position) {
+        ring.subscriptions[index] = null;
+        ring.events[index] = null;
+        ring.futures[index] = null;
+        ring.waits[index] = null;
+        ring.sequences.setRelease(index, position + mask + 1);
+    }
+
+    private Ring ring() {
+        Ring current = ring;
+        if (current == null) {
+            synchronized (this) {
+                current = ring;
+                if (current == null) {
+                    current = new Ring(mask + 1);
+                    ring = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -1,25 +1,37 @@
 package me.a8kj.flux.internal.execution.strategy;
 
+import lombok.RequiredArgsConstructor;
 import me.a8kj.flux.api.Event;
 import me.a8kj.flux.api.Subscription;
 import me.a8kj.flux.api.ExecutionStrategy;
+import me.a8kj.flux.internal.error.ErrorChannel;
+import me.a8kj.flux.internal.jfr.FlightRecording;
+import me.a8kj.flux.internal.jfr.QueueWaitEvent;
 import me.a8kj.flux.template.concurrent.Promise;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+@RequiredArgsConstructor
 public class VirtualStrategy implements ExecutionStrategy {
     private static final ExecutorService VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
 
+    private final ErrorChannel errors;
+
     @Override
     public Promise<Void> execute(Subscription subscription, Event event) {
-        return Promise.supply(() -> {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        QueueWaitEvent queued = FlightRecording.enqueued();
+        VIRTUAL_THREADS.execute(() -> {
+            FlightRecording.dequeued(queued, subscription, event);
             try {
-                subscription.invoker().invoke(subscription.listener(), event);
+                FlightRecording.invoke(subscription, event);
+                future.complete(null);
             } catch (Throwable e) {
-                throw new RuntimeException(e);
+                future.completeExceptionally(errors.report(e, subscription, event));
             }
-            return null;
-        }, VIRTUAL_THREADS);
+        });
+        return Promise.of(future);
     }
 }
@@ -0,0 +1,98 @@
+package me.a8kj.flux.internal.flow;
+
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.OverflowStrategy;
+import me.a8kj.flux.api.Scope;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Flow.Publisher} of one event type. Every subscriber is backed by a SYNC subscription
+ * in its own child scope, which is closed again when the subscriber cancels or terminates.
+ * <p>
+ * Live streams, not the publisher, are handed to {@code opened} and {@code terminated}, so the
+ * owner can complete them on shutdown without keeping publishers nobody uses any more.
+ */
+public final class EventPublisher<E extends Event> implements Flow.Publisher<E>, AutoCloseable {
+
+    private final Engine engine;
+    private final Class<E> eventType;
+    private final int bufferSize;
+    private final OverflowStrategy overflow;
+    private final Consumer<AutoCloseable> opened;
+    private final Consumer<AutoCloseable> terminated;
+    private final Set<EventStream<E>> streams = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    public EventPublisher(Engine engine, Class<E> eventType, int bufferSize, OverflowStrategy overflow,
+                          Consumer<AutoCloseable> opened, Consumer<AutoCloseable> terminated) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive");
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        this.eventType = Objects.requireNonNull(eventType, "Event type cannot be null");
+        this.overflow = Objects.requireNonNull(overflow, "Overflow strategy cannot be null");
+        this.opened = Objects.requireNonNull(opened, "Open hook cannot be null");
+        this.terminated = Objects.requireNonNull(terminated, "Termination hook cannot be null");
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+        Scope scope = closed ? null : openScope();
+        if (scope == null) {
+            subscriber.onSubscribe(EventStream.NOOP);
+            subscriber.onComplete();
+            return;
+        }
+
+        EventStream<E> stream = new EventStream<>(subscriber, scope, bufferSize, overflow, dropped, this::terminated);
+        streams.add(stream);
+        opened.accept(stream);
+        subscriber.onSubscribe(stream);
+        if (stream.isCancelled()) return;
+
+        scope.subscribe(eventType, stream::offer, Execution.SYNC);
+        if (closed || !engine.isActive()) stream.complete();
+    }
+
+    private Scope openScope() {
+        try {
+            return engine.isActive() ? engine.createScope() : null;
+        } catch (IllegalStateException closedMeanwhile) {
+            return null;
+        }
+    }
+
+    private void terminated(EventStream<E> stream) {
+        if (streams.remove(stream)) terminated.accept(stream);
+    }
+
+    /**
+     * Events discarded by full buffers across all subscribers, including those cancelled by
+     * {@link OverflowStrategy#ERROR}.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public int subscribers() {
+        return streams.size();
+    }
+
+    /**
+     * Completes every subscriber once it has drained what is already buffered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        streams.forEach(EventStream::complete);
+    }
+}
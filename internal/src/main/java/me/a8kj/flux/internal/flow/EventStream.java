@@ -0,0 +1,214 @@
+package me.a8kj.flux.internal.flow;
+
+import me.a8kj.flux.api.OverflowStrategy;
+import me.a8kj.flux.api.Scope;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * One subscriber's bounded buffer and demand.
+ *
+ * <p>The engine offers events on the publishing thread. Delivery happens in a drain loop run on
+ * a virtual thread, entered by whichever offer, request or termination finds it idle, so
+ * {@code onNext} calls never overlap and a slow consumer never runs on the publisher.</p>
+ */
+final class EventStream<E> implements Flow.Subscription, AutoCloseable {
+
+    static final Flow.Subscription NOOP = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private static final ExecutorService DELIVERY = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Flow.Subscriber<? super E> subscriber;
+    private final Scope scope;
+    private final int capacity;
+    private final OverflowStrategy overflow;
+    private final LongAdder dropped;
+    private final Consumer<EventStream<E>> onTerminate;
+    private final ArrayDeque<E> buffer = new ArrayDeque<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    EventStream(Flow.Subscriber<? super E> subscriber, Scope scope, int capacity, OverflowStrategy overflow,
+                LongAdder dropped, Consumer<EventStream<E>> onTerminate) {
+        this.subscriber = subscriber;
+        this.scope = scope;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.dropped = dropped;
+        this.onTerminate = onTerminate;
+    }
+
+    /**
+     * Called by the engine on the publishing thread.
+     */
+    void offer(E event) {
+        if (cancelled || completed || error != null) return;
+
+        synchronized (buffer) {
+            while (buffer.size() >= capacity) {
+                if (cancelled) return;
+                if (overflow == OverflowStrategy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                if (overflow == OverflowStrategy.LATEST) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                    break;
+                }
+                if (overflow == OverflowStrategy.ERROR) {
+                    dropped.increment();
+                    fail(new IllegalStateException("Stream buffer of " + capacity + " events overflowed"));
+                    return;
+                }
+                try {
+                    buffer.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    return;
+                }
+            }
+            buffer.addLast(event);
+        }
+        schedule();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Requested " + n + " events; demand must be positive"));
+            return;
+        }
+        requested.getAndAccumulate(n, (current, added) -> {
+            long sum = current + added;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        release();
+    }
+
+    /**
+     * Lets the subscriber drain what is buffered, then signals completion.
+     */
+    void complete() {
+        completed = true;
+        scope.close();
+        schedule();
+    }
+
+    /**
+     * Same as {@link #complete()}; called when the owning engine shuts down.
+     */
+    @Override
+    public void close() {
+        complete();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void fail(Throwable cause) {
+        if (error != null) return;
+        error = cause;
+        scope.close();
+        schedule();
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) DELIVERY.execute(this::drain);
+    }
+
+    private void drain() {
+        int missed = 1;
+        while (true) {
+            long demand = requested.get();
+            long emitted = 0;
+
+            while (true) {
+                if (cancelled) return;
+                Throwable failure = error;
+                if (failure != null) {
+                    terminate();
+                    subscriber.onError(failure);
+                    return;
+                }
+
+                E next = emitted == demand ? null : poll();
+                if (next == null) {
+                    if (completed && isEmpty()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    break;
+                }
+
+                try {
+                    subscriber.onNext(next);
+                } catch (Throwable t) {
+                    cancel();
+                    return;
+                }
+                emitted++;
+            }
+
+            if (emitted != 0 && demand != Long.MAX_VALUE) requested.addAndGet(-emitted);
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) return;
+        }
+    }
+
+    private E poll() {
+        synchronized (buffer) {
+            E next = buffer.pollFirst();
+            if (next != null && overflow == OverflowStrategy.BLOCK) buffer.notifyAll();
+            return next;
+        }
+    }
+
+    private boolean isEmpty() {
+        synchronized (buffer) {
+            return buffer.isEmpty();
+        }
+    }
+
+    private void terminate() {
+        cancelled = true;
+        release();
+    }
+
+    private void release() {
+        scope.close();
+        synchronized (buffer) {
+            buffer.clear();
+            buffer.notifyAll();
+        }
+        onTerminate.accept(this);
+    }
+}
@@ -0,0 +1,101 @@
+package me.a8kj.flux.internal.flow;
+
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.template.concurrent.Promise;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a {@link Flow.Publisher}'s items into an engine. Demand is replenished one item per
+ * finished dispatch, so a slow engine slows the source down instead of queueing its output.
+ *
+ * <p>Dispatches finish on whatever threads ran their subscribers, so their credit is collected
+ * in a counter and passed on by a single drain at a time, keeping calls to the subscription
+ * serialized.</p>
+ */
+public final class PublisherFeed<E extends Event> implements Flow.Subscriber<E> {
+
+    private final Engine engine;
+    private final int maxInFlight;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong credit = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean sourceDone;
+    private volatile boolean cancelled;
+
+    public PublisherFeed(Engine engine, int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("In-flight limit must be positive");
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Promise<Void> completion() {
+        return Promise.of(completion);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription cannot be null");
+        if (this.subscription != null || completion.isDone()) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        replenish(maxInFlight);
+    }
+
+    @Override
+    public void onNext(E item) {
+        Objects.requireNonNull(item, "Item cannot be null");
+        if (!engine.isActive()) {
+            cancelled = true;
+            replenish(0);
+            completion.complete(null);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        engine.publish(item).unwrap().whenComplete((ignored, error) -> {
+            if (inFlight.decrementAndGet() == 0 && sourceDone) {
+                completion.complete(null);
+            } else if (!sourceDone) {
+                replenish(1);
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        sourceDone = true;
+        completion.completeExceptionally(Objects.requireNonNull(throwable, "Error cannot be null"));
+    }
+
+    @Override
+    public void onComplete() {
+        sourceDone = true;
+        if (inFlight.get() == 0) completion.complete(null);
+    }
+
+    private void replenish(long n) {
+        credit.addAndGet(n);
+        if (wip.getAndIncrement() != 0) return;
+
+        int missed = 1;
+        do {
+            long requested = credit.getAndSet(0);
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            if (requested > 0 && !sourceDone) subscription.request(requested);
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
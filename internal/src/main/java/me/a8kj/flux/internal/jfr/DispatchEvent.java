@@ -0,0 +1,23 @@
+package me.a8kj.flux.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.a8kj.flux.Dispatch")
+@Label("Event Dispatch")
+@Description("Time from publish until every subscriber of the event has completed")
+@Category("Flux")
+@Enabled(false)
+@StackTrace(false)
+public class DispatchEvent extends jdk.jfr.Event {
+
+    @Label("Event Type")
+    public Class<?> eventType;
+
+    @Label("Subscribers")
+    public int subscribers;
+}
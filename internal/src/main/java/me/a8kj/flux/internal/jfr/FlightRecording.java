@@ -0,0 +1,103 @@
+package me.a8kj.flux.internal.jfr;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Subscription;
+import jdk.jfr.EventType;
+
+/**
+ * Entry points for emitting Flux JFR events. Every event type is disabled by default, and the
+ * hot entry points check a cached {@link EventType#isEnabled()} before creating an event, so
+ * with recording off the dispatch path pays that check and nothing else.
+ */
+public final class FlightRecording {
+
+    private static final EventType INVOCATION = EventType.getEventType(InvocationEvent.class);
+    private static final EventType QUEUE_WAIT = EventType.getEventType(QueueWaitEvent.class);
+    private static final EventType DISPATCH = EventType.getEventType(DispatchEvent.class);
+
+    private FlightRecording() {
+    }
+
+    public static void invoke(Subscription subscription, Event event) throws Throwable {
+        if (!INVOCATION.isEnabled()) {
+            subscription.invoker().invoke(subscription.listener(), event);
+            return;
+        }
+        InvocationEvent jfr = new InvocationEvent();
+        jfr.begin();
+        try {
+            subscription.invoker().invoke(subscription.listener(), event);
+        } finally {
+            jfr.end();
+            if (jfr.shouldCommit()) {
+                jfr.eventType = event.getClass();
+                jfr.listenerClass = listenerClass(subscription);
+                jfr.mode = subscription.mode().name();
+                jfr.commit();
+            }
+        }
+    }
+
+    /**
+     * Whether a recording wants per-subscriber invocation events, which only
+     * {@link #invoke(Subscription, Event)} emits.
+     */
+    public static boolean recordsInvocations() {
+        return INVOCATION.isEnabled();
+    }
+
+    /**
+     * Starts timing a queued invocation, or returns {@code null} when nobody is recording it.
+     */
+    public static QueueWaitEvent enqueued() {
+        if (!QUEUE_WAIT.isEnabled()) return null;
+        QueueWaitEvent jfr = new QueueWaitEvent();
+        jfr.begin();
+        return jfr;
+    }
+
+    public static void dequeued(QueueWaitEvent jfr, Subscription subscription, Event event) {
+        if (jfr == null) return;
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.eventType = event.getClass();
+            jfr.listenerClass = listenerClass(subscription);
+            jfr.mode = subscription.mode().name();
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Starts timing a whole dispatch, or returns {@code null} when nobody is recording it.
+     */
+    public static DispatchEvent dispatchStarted() {
+        if (!DISPATCH.isEnabled()) return null;
+        DispatchEvent jfr = new DispatchEvent();
+        jfr.begin();
+        return jfr;
+    }
+
+    public static void dispatched(DispatchEvent jfr, Class<?> eventType, int subscribers) {
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.eventType = eventType;
+            jfr.subscribers = subscribers;
+            jfr.commit();
+        }
+    }
+
+    public static void registration(String action, Class<?> listenerClass, int subscriptions) {
+        RegistrationEvent jfr = new RegistrationEvent();
+        if (jfr.shouldCommit()) {
+            jfr.action = action;
+            jfr.listenerClass = listenerClass;
+            jfr.subscriptions = subscriptions;
+            jfr.commit();
+        }
+    }
+
+    private static Class<?> listenerClass(Subscription subscription) {
+        Object listener = subscription.listener();
+        return listener != null ? listener.getClass() : subscription.invoker().getClass();
+    }
+}
@@ -0,0 +1,26 @@
+package me.a8kj.flux.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.a8kj.flux.Invocation")
+@Label("Subscriber Invocation")
+@Description("Time spent inside a single subscriber")
+@Category("Flux")
+@Enabled(false)
+@StackTrace(false)
+public class InvocationEvent extends jdk.jfr.Event {
+
+    @Label("Event Type")
+    public Class<?> eventType;
+
+    @Label("Listener Class")
+    public Class<?> listenerClass;
+
+    @Label("Execution Mode")
+    public String mode;
+}
@@ -0,0 +1,26 @@
+package me.a8kj.flux.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.a8kj.flux.Registration")
+@Label("Subscription Change")
+@Description("A listener was registered or unregistered")
+@Category("Flux")
+@Enabled(false)
+@StackTrace(false)
+public class RegistrationEvent extends jdk.jfr.Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("Listener Class")
+    public Class<?> listenerClass;
+
+    @Label("Subscriptions")
+    public int subscriptions;
+}
@@ -0,0 +1,197 @@
+package me.a8kj.flux.internal.profile;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.DispatchProfiler;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.FastInvoker;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.api.SubscriberLatency;
+import me.a8kj.flux.invoker.BoundInvoker;
+import me.a8kj.flux.invoker.ConsumerInvoker;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Decides per thread whether a publish is sampled and, for sampled publishes, wraps each
+ * subscription in a timing invoker. Latencies are aggregated per subscription instance, so two
+ * subscriptions of the same class or lambda shape are never merged.
+ */
+@Log
+public final class SamplingProfiler implements DispatchProfiler, AutoCloseable {
+
+    private static final Comparator<SubscriberLatency> BY_MEAN = Comparator.comparingLong(SubscriberLatency::meanNanos);
+
+    private static final class Countdown {
+        private int remaining;
+    }
+
+    private record Key(Subscription subscription, Class<?> eventType) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.subscription == subscription && key.eventType == eventType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(subscription) + eventType.hashCode();
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long nanos) {
+            samples.increment();
+            total.add(nanos);
+            long current;
+            while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private final ThreadLocal<Countdown> countdown = ThreadLocal.withInitial(Countdown::new);
+    private final ConcurrentMap<Key, Stats> stats = new ConcurrentHashMap<>();
+    private volatile int rate;
+    private ScheduledExecutorService dumper;
+
+    public SamplingProfiler(int rate) {
+        sampleEvery(rate);
+    }
+
+    /**
+     * Periodically logs the {@code k} slowest subscribers.
+     */
+    public synchronized void dumpEvery(long period, TimeUnit unit, int k) {
+        if (dumper != null) dumper.shutdownNow();
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> Thread.ofPlatform()
+                .name("flux-profiler-dump")
+                .daemon(true)
+                .unstarted(r));
+        dumper.scheduleAtFixedRate(() -> dump(k), period, period, unit);
+    }
+
+    public boolean sample() {
+        int every = rate;
+        if (every <= 0) return false;
+
+        Countdown counter = countdown.get();
+        if (--counter.remaining > 0) return false;
+        counter.remaining = every;
+        return true;
+    }
+
+    public Subscription instrument(Subscription subscription, Class<?> eventType) {
+        Stats target = stats.computeIfAbsent(new Key(subscription, eventType), k -> new Stats());
+        FastInvoker delegate = subscription.invoker();
+        FastInvoker timed = (listener, event) -> {
+            long start = System.nanoTime();
+            try {
+                delegate.invoke(listener, event);
+            } finally {
+                target.record(System.nanoTime() - start);
+            }
+        };
+        return new Subscription(subscription.listener(), timed, subscription.mode(),
+                subscription.priority(), subscription.ignoreCancelled());
+    }
+
+    @Override
+    public void sampleEvery(int publishes) {
+        if (publishes < 0) throw new IllegalArgumentException("Sample rate cannot be negative");
+        this.rate = publishes;
+    }
+
+    @Override
+    public int sampleRate() {
+        return rate;
+    }
+
+    @Override
+    public List<SubscriberLatency> slowest(int k) {
+        if (k <= 0) return List.of();
+
+        PriorityQueue<SubscriberLatency> top = new PriorityQueue<>(k, BY_MEAN);
+        stats.forEach((key, value) -> {
+            long samples = value.samples.sum();
+            if (samples == 0) return;
+
+            top.offer(latency(key, samples, value.total.sum() / samples, value.max.get()));
+            if (top.size() > k) top.poll();
+        });
+
+        List<SubscriberLatency> result = new ArrayList<>(top);
+        result.sort(BY_MEAN.reversed());
+        return result;
+    }
+
+    private static SubscriberLatency latency(Key key, long samples, long mean, long max) {
+        Subscription sub = key.subscription();
+        Class<?> owner;
+        String method;
+        if (sub.invoker() instanceof BoundInvoker bound) {
+            Method target = bound.method();
+            owner = target.getDeclaringClass();
+            method = target.getName();
+        } else if (sub.invoker() instanceof ConsumerInvoker consumer) {
+            owner = consumer.consumer().getClass();
+            method = "accept";
+        } else {
+            owner = sub.listener() != null ? sub.listener().getClass() : sub.invoker().getClass();
+            method = "invoke";
+        }
+        return new SubscriberLatency(owner, method, key.eventType(), sub.mode(), samples, mean, max);
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Drops the latencies of subscriptions that are gone, so the listeners they hold can be
+     * collected.
+     */
+    public void forget(Predicate<Subscription> removed) {
+        if (stats.isEmpty()) return;
+        stats.keySet().removeIf(key -> removed.test(key.subscription()));
+    }
+
+    public boolean isEmpty() {
+        return stats.isEmpty();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dumper != null) dumper.shutdownNow();
+    }
+
+    private void dump(int k) {
+        List<SubscriberLatency> slowest = slowest(k);
+        if (slowest.isEmpty()) return;
+
+        StringBuilder report = new StringBuilder("[Flux-Profile] Slowest subscribers (1 in ")
+                .append(rate).append(" publishes sampled):");
+        for (SubscriberLatency entry : slowest) {
+            report.append(String.format("%n  %s#%s on %s [%s] mean %.4f ms, max %.4f ms, %d samples",
+                    entry.declaringClass().getName(), entry.method(), entry.eventType().getSimpleName(), entry.mode(),
+                    entry.meanNanos() / 1_000_000.0, entry.maxNanos() / 1_000_000.0, entry.samples()));
+        }
+        log.info(report.toString());
+    }
+}
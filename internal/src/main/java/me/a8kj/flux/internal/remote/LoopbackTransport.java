@@ -0,0 +1,83 @@
+package me.a8kj.flux.internal.remote;
+
+import lombok.Getter;
+import me.a8kj.flux.api.Transport;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link Transport} that connects named endpoints of a shared {@link Hub}.
+ * Each endpoint delivers on its own thread, so batches from one peer arrive in order.
+ */
+public final class LoopbackTransport implements Transport {
+
+    @Getter
+    private final String name;
+    private final Hub hub;
+    private final ExecutorService delivery;
+    private final LongAdder undeliverable = new LongAdder();
+    private volatile Receiver receiver;
+
+    private LoopbackTransport(String name, Hub hub) {
+        this.name = name;
+        this.hub = hub;
+        this.delivery = Executors.newSingleThreadExecutor(r -> Thread.ofPlatform()
+                .name("flux-loopback-" + name)
+                .daemon(true)
+                .unstarted(r));
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = Objects.requireNonNull(receiver, "Receiver cannot be null");
+    }
+
+    @Override
+    public void send(String peer, ByteBuffer batch) {
+        LoopbackTransport target = hub.endpoints.get(peer);
+        if (target == null || target.receiver == null || target.delivery.isShutdown()) {
+            undeliverable.increment();
+            return;
+        }
+
+        ByteBuffer copy = ByteBuffer.allocate(batch.remaining()).put(batch).flip();
+        try {
+            target.delivery.execute(() -> target.receiver.receive(name, copy));
+        } catch (RuntimeException e) {
+            undeliverable.increment();
+        }
+    }
+
+    /**
+     * Batches sent to an endpoint that was missing, not started, or already closed.
+     */
+    public long undeliverable() {
+        return undeliverable.sum();
+    }
+
+    @Override
+    public void close() {
+        hub.endpoints.remove(name, this);
+        delivery.shutdown();
+    }
+
+    public static final class Hub {
+
+        private final Map<String, LoopbackTransport> endpoints = new ConcurrentHashMap<>();
+
+        public LoopbackTransport endpoint(String name) {
+            LoopbackTransport transport = new LoopbackTransport(name, this);
+            if (endpoints.putIfAbsent(name, transport) != null) {
+                transport.delivery.shutdown();
+                throw new IllegalArgumentException("Endpoint already exists: " + name);
+            }
+            return transport;
+        }
+    }
+}
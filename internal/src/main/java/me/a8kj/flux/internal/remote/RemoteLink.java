@@ -0,0 +1,417 @@
+package me.a8kj.flux.internal.remote;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.EventCodec;
+import me.a8kj.flux.api.Transport;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Forwards selected event types from a local engine to remote peers over a {@link Transport}
+ * and republishes accepted types received from them.
+ * <p>
+ * Outbound events are parked in a bounded queue per peer and encoded in batches, flushed
+ * when a batch fills up or when the flush interval elapses, whichever comes first.
+ * Batch layout: {@code [int count][byte compressed][int rawLength]} followed by
+ * {@code [int typeId][int length][payload]} records, deflated when compression is enabled.
+ * <p>
+ * Received events are remembered by identity until their local dispatch completes, so they are
+ * not forwarded back to a peer whichever thread ends up dispatching them.
+ */
+@Log
+public final class RemoteLink implements AutoCloseable {
+
+    private static final int BATCH_HEADER = 9;
+    private static final int RECORD_HEADER = 8;
+
+    private record Route<E extends Event>(int id, EventCodec<E> codec) {
+    }
+
+    private record Received(Event event) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Received received && received.event == event;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(event);
+        }
+    }
+
+    private final Engine engine;
+    private final Transport transport;
+    private final Map<Class<?>, Route<?>> routes;
+    private final Map<Integer, EventCodec<?>> accepted;
+    private final Map<String, Peer> peers;
+    private final Set<Class<?>> forwarded;
+    private final int maxBatch;
+    private final int compressAbove;
+    private final ScheduledExecutorService flusher;
+    private final Set<Received> received = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private final AtomicInteger enqueuing = new AtomicInteger();
+
+    private RemoteLink(Builder builder, Engine engine) {
+        this.engine = engine;
+        this.transport = builder.transport;
+        this.routes = Map.copyOf(builder.routes);
+        this.maxBatch = builder.maxBatch;
+        this.compressAbove = builder.compressAbove;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> Thread.ofPlatform()
+                .name("flux-remote-flusher")
+                .daemon(true)
+                .unstarted(r));
+
+        Map<Integer, EventCodec<?>> inbound = new HashMap<>();
+        for (Class<? extends Event> type : builder.accepts) {
+            Route<?> route = builder.route(type);
+            inbound.put(route.id(), route.codec());
+        }
+        this.accepted = Map.copyOf(inbound);
+
+        Map<String, Peer> targets = new LinkedHashMap<>();
+        Map<Class<? extends Event>, List<Peer>> fanOut = new HashMap<>();
+        builder.forwards.forEach((type, names) -> {
+            builder.route(type);
+            for (String name : names) {
+                Peer peer = targets.computeIfAbsent(name, n -> new Peer(n, builder.queueCapacity));
+                fanOut.computeIfAbsent(type, t -> new ArrayList<>()).add(peer);
+            }
+        });
+        this.peers = Map.copyOf(targets);
+        this.forwarded = Set.copyOf(fanOut.keySet());
+
+        transport.start(this::receive);
+        fanOut.forEach((type, list) -> attach(type, list.toArray(Peer[]::new)));
+
+        long interval = builder.flushIntervalNanos;
+        flusher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder(Transport transport) {
+        return new Builder(Objects.requireNonNull(transport, "Transport cannot be null"));
+    }
+
+    /**
+     * Number of outbound events rejected because a peer queue was full.
+     */
+    public long dropped() {
+        return peers.values().stream().mapToLong(p -> p.dropped.sum()).sum();
+    }
+
+    public long dropped(String peer) {
+        Peer target = peers.get(peer);
+        return target == null ? 0L : target.dropped.sum();
+    }
+
+    public long batchesSent() {
+        return peers.values().stream().mapToLong(p -> p.batches.sum()).sum();
+    }
+
+    @Override
+    public void close() {
+        if (!open.getAndSet(false)) return;
+        // let enqueues that got past the open check finish their offers before the final flush
+        while (enqueuing.get() != 0) {
+            Thread.onSpinWait();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        peers.values().forEach(Peer::flush);
+        peers.values().forEach(Peer::close);
+        transport.close();
+    }
+
+    private <E extends Event> void attach(Class<E> type, Peer[] targets) {
+        engine.subscribe(type, event -> enqueue(targets, event), Execution.SYNC);
+    }
+
+    private void enqueue(Peer[] targets, Event event) {
+        if (!received.isEmpty() && received.contains(new Received(event))) return;
+
+        enqueuing.incrementAndGet();
+        try {
+            if (!open.get()) return;
+            for (Peer peer : targets) {
+                if (!peer.queue.offer(event)) {
+                    peer.dropped.increment();
+                    continue;
+                }
+                if (peer.queue.size() >= maxBatch && peer.flushRequested.compareAndSet(false, true)) {
+                    try {
+                        flusher.execute(peer::flush);
+                    } catch (RejectedExecutionException closing) {
+                        // close() waits for this enqueue before its final flush
+                        peer.flushRequested.set(false);
+                    }
+                }
+            }
+        } finally {
+            enqueuing.decrementAndGet();
+        }
+    }
+
+    private void flushAll() {
+        for (Peer peer : peers.values()) {
+            if (!peer.queue.isEmpty()) peer.flush();
+        }
+    }
+
+    private void receive(String peer, ByteBuffer batch) {
+        if (!open.get()) return;
+
+        try {
+            int count = batch.getInt();
+            boolean compressed = batch.get() != 0;
+            int rawLength = batch.getInt();
+            ByteBuffer records = compressed ? inflate(batch, rawLength) : batch;
+
+            for (int i = 0; i < count; i++) {
+                int typeId = records.getInt();
+                int length = records.getInt();
+                int end = records.position() + length;
+                EventCodec<?> codec = accepted.get(typeId);
+                if (codec != null) {
+                    ByteBuffer payload = records.slice(records.position(), length);
+                    publish(codec.decode(payload));
+                }
+                records.position(end);
+            }
+        } catch (RuntimeException | DataFormatException e) {
+            log.warning("Discarding malformed batch from " + peer + ": " + e);
+        }
+    }
+
+    private void publish(Event event) {
+        if (!forwarded.contains(event.getClass())) {
+            engine.publish(event);
+            return;
+        }
+        Received echo = new Received(event);
+        received.add(echo);
+        engine.publish(event).always(() -> received.remove(echo));
+    }
+
+    private static ByteBuffer inflate(ByteBuffer source, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer target = ByteBuffer.allocate(rawLength);
+            inflater.setInput(source);
+            while (target.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(target) == 0 && inflater.needsInput()) break;
+            }
+            return target.flip();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private final class Peer {
+
+        private final String name;
+        private final ArrayBlockingQueue<Event> queue;
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private final AtomicBoolean flushRequested = new AtomicBoolean();
+        private final List<Event> drained;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private ByteBuffer compressed = ByteBuffer.allocate(64 * 1024);
+
+        private Peer(String name, int capacity) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.drained = new ArrayList<>(maxBatch);
+        }
+
+        private void flush() {
+            flushRequested.set(false);
+            if (!flushing.compareAndSet(false, true)) return;
+            try {
+                while (queue.drainTo(drained, maxBatch) > 0) {
+                    send();
+                    drained.clear();
+                }
+            } catch (RuntimeException e) {
+                log.warning("Failed to flush batch to " + name + ": " + e);
+                drained.clear();
+            } finally {
+                flushing.set(false);
+            }
+        }
+
+        private void send() {
+            buffer.clear().position(BATCH_HEADER);
+            int count = 0;
+            for (Event event : drained) {
+                Route<?> route = routes.get(event.getClass());
+                if (route != null && write(route, event)) count++;
+            }
+
+            int rawLength = buffer.position() - BATCH_HEADER;
+            ByteBuffer out = buffer;
+            boolean deflated = compressAbove >= 0 && rawLength > compressAbove;
+            if (deflated) {
+                out = deflate(rawLength);
+            }
+
+            out.putInt(0, count).put(4, (byte) (deflated ? 1 : 0)).putInt(5, rawLength);
+            transport.send(name, out.flip());
+            batches.increment();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E extends Event> boolean write(Route<E> route, Event event) {
+            while (true) {
+                int start = buffer.position();
+                if (buffer.remaining() > RECORD_HEADER) {
+                    try {
+                        buffer.position(start + RECORD_HEADER);
+                        route.codec().encode((E) event, buffer);
+                        buffer.putInt(start, route.id()).putInt(start + 4, buffer.position() - start - RECORD_HEADER);
+                        return true;
+                    } catch (BufferOverflowException overflow) {
+                        buffer.position(start);
+                    }
+                }
+                if (buffer.capacity() >= 1 << 30) return false;
+                buffer = grow(buffer, buffer.capacity() * 2);
+            }
+        }
+
+        private ByteBuffer deflate(int rawLength) {
+            if (compressed.capacity() < rawLength + BATCH_HEADER + 64) {
+                compressed = ByteBuffer.allocate(rawLength + BATCH_HEADER + 64);
+            }
+            compressed.clear().position(BATCH_HEADER);
+            deflater.reset();
+            deflater.setInput(buffer.slice(BATCH_HEADER, rawLength));
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!compressed.hasRemaining()) compressed = grow(compressed, compressed.capacity() * 2);
+                deflater.deflate(compressed);
+            }
+            return compressed;
+        }
+
+        private void close() {
+            deflater.end();
+        }
+
+        private static ByteBuffer grow(ByteBuffer current, int capacity) {
+            ByteBuffer next = ByteBuffer.allocate(capacity);
+            next.put(current.flip());
+            return next;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Transport transport;
+        private final Map<Class<? extends Event>, Route<?>> routes = new HashMap<>();
+        private final Map<Class<? extends Event>, Set<String>> forwards = new HashMap<>();
+        private final Set<Class<? extends Event>> accepts = new HashSet<>();
+        private int maxBatch = 256;
+        private long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(5);
+        private int queueCapacity = 16_384;
+        private int compressAbove = -1;
+
+        private Builder(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Registers the wire id for a type. Every node must use the same id for the same type.
+         */
+        public <E extends Event> Builder codec(int id, EventCodec<E> codec) {
+            Objects.requireNonNull(codec, "Codec cannot be null");
+            for (Route<?> route : routes.values()) {
+                if (route.id() == id) throw new IllegalArgumentException("Duplicate type id: " + id);
+            }
+            routes.put(codec.type(), new Route<>(id, codec));
+            return this;
+        }
+
+        public Builder forward(Class<? extends Event> type, String... peers) {
+            forwards.computeIfAbsent(type, t -> new HashSet<>()).addAll(List.of(peers));
+            return this;
+        }
+
+        public Builder accept(Class<? extends Event> type) {
+            accepts.add(type);
+            return this;
+        }
+
+        /**
+         * Flushes a peer as soon as this many events are queued for it.
+         */
+        public Builder maxBatch(int events) {
+            if (events <= 0) throw new IllegalArgumentException("Batch size must be positive");
+            this.maxBatch = events;
+            return this;
+        }
+
+        public Builder flushInterval(long value, TimeUnit unit) {
+            if (value <= 0) throw new IllegalArgumentException("Flush interval must be positive");
+            this.flushIntervalNanos = unit.toNanos(value);
+            return this;
+        }
+
+        public Builder queueCapacity(int events) {
+            if (events <= 0) throw new IllegalArgumentException("Queue capacity must be positive");
+            this.queueCapacity = events;
+            return this;
+        }
+
+        /**
+         * Deflates batches whose encoded size exceeds the given number of bytes.
+         */
+        public Builder compressAbove(int bytes) {
+            this.compressAbove = bytes;
+            return this;
+        }
+
+        public RemoteLink connect(Engine engine) {
+            Objects.requireNonNull(engine, "Engine cannot be null");
+            return new RemoteLink(this, engine);
+        }
+
+        private Route<?> route(Class<? extends Event> type) {
+            Route<?> route = routes.get(type);
+            if (route == null) {
+                throw new IllegalStateException("No codec registered for " + type.getName());
+            }
+            return route;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package me.a8kj.flux.internal.schedule;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hierarchical timing wheel with six levels of 64 slots each, driven by a single daemon thread.
+ * <p>
+ * Timers are intrusive doubly-linked nodes, so scheduling and cancelling are O(1) and allocate
+ * nothing beyond the returned handle and its state counter. Other threads hand timers over
+ * through lock-free intrusive stacks; only the wheel thread touches the buckets. Coarser levels
+ * are cascaded down one level whenever the finer level wraps around.
+ * <p>
+ * The wheel thread sleeps until the next occupied slot, or the next cascade while only coarser
+ * levels hold timers, and parks indefinitely while the wheel is empty. Timers still pending at
+ * {@link #close()} are cancelled.
+ */
+@Log
+public final class TimingWheel implements AutoCloseable {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int DONE = 2;
+
+    private final long tickNanos;
+    private final long origin;
+    private final Consumer<Event> sink;
+    private final Timer[][] buckets = new Timer[LEVELS][SLOTS];
+    private final AtomicReference<Timer> submitted = new AtomicReference<>();
+    private final AtomicReference<Timer> cancelled = new AtomicReference<>();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    private long now;
+    private int size;
+
+    public TimingWheel(long tickNanos, Consumer<Event> sink) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("Tick must be positive");
+        this.tickNanos = tickNanos;
+        this.sink = sink;
+        this.origin = System.nanoTime();
+        this.worker = Thread.ofPlatform()
+                .name("flux-timing-wheel")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    public Scheduled schedule(Event event, long delay, TimeUnit unit) {
+        return schedule(event, delay, unit, sink, null);
+    }
+
+    /**
+     * Schedules a one-shot timer that hands the event to the given sink instead of the wheel's own,
+     * and runs {@code onCancel}, if given, when the timer is cancelled before it fires.
+     */
+    public Scheduled schedule(Event event, long delay, TimeUnit unit, Consumer<Event> target, Runnable onCancel) {
+        return submit(new Timer(this, target, onCancel, event, null, deadline(unit.toNanos(delay)), 0L));
+    }
+
+    public Scheduled scheduleAtFixedRate(Supplier<? extends Event> factory, long initialDelay, long period, TimeUnit unit) {
+        long periodTicks = Math.max(1L, unit.toNanos(period) / tickNanos);
+        return submit(new Timer(this, sink, null, null, factory, deadline(unit.toNanos(initialDelay)), periodTicks));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private long deadline(long delayNanos) {
+        long elapsed = System.nanoTime() - origin + Math.max(0L, delayNanos);
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    private Timer submit(Timer timer) {
+        if (!running) {
+            timer.cancel();
+            return timer;
+        }
+        push(submitted, timer, false);
+        if (!running) timer.cancel();
+        else if (idle) LockSupport.unpark(worker);
+        return timer;
+    }
+
+    private static void push(AtomicReference<Timer> stack, Timer timer, boolean cancellation) {
+        Timer top;
+        do {
+            top = stack.get();
+            if (cancellation) timer.nextCancelled = top;
+            else timer.nextSubmitted = top;
+        } while (!stack.compareAndSet(top, timer));
+    }
+
+    private void run() {
+        while (running) {
+            long due = (System.nanoTime() - origin) / tickNanos;
+            // nothing is placed relative to now while the wheel is empty, so idle ticks can be skipped
+            if (size == 0 && now < due) now = due;
+            acceptSubmitted();
+            acceptCancelled();
+            while (now <= due && running) {
+                advance();
+            }
+            sleep(nextOccupied());
+        }
+        cancelOutstanding();
+    }
+
+    /**
+     * Parks until the given tick, or indefinitely for {@code -1}. Submitters unpark the thread
+     * whenever it is idle, since a new timer may be due sooner.
+     */
+    private void sleep(long tick) {
+        idle = true;
+        if (running && submitted.get() == null) {
+            if (tick < 0) {
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, Math.max(1L, origin + tick * tickNanos - System.nanoTime()));
+            }
+        }
+        idle = false;
+    }
+
+    /**
+     * Returns the next tick with a level-0 timer in the current rotation, the start of the next
+     * rotation if only coarser levels hold timers, or {@code -1} if the wheel is empty.
+     */
+    private long nextOccupied() {
+        if (size == 0) return -1L;
+        long rotationEnd = (now | MASK) + 1;
+        for (long tick = now; tick < rotationEnd; tick++) {
+            if (buckets[0][(int) (tick & MASK)] != null) return tick;
+        }
+        return rotationEnd;
+    }
+
+    private void cancelOutstanding() {
+        acceptSubmitted();
+        for (Timer[] level : buckets) {
+            for (int index = 0; index < SLOTS; index++) {
+                Timer timer = level[index];
+                level[index] = null;
+                while (timer != null) {
+                    Timer next = timer.next;
+                    timer.prev = timer.next = null;
+                    timer.level = -1;
+                    timer.cancel();
+                    timer = next;
+                }
+            }
+        }
+        size = 0;
+        cancelled.set(null);
+    }
+
+    private void acceptSubmitted() {
+        for (Timer timer = submitted.getAndSet(null); timer != null; ) {
+            Timer next = timer.nextSubmitted;
+            timer.nextSubmitted = null;
+            if (timer.state.get() == PENDING) insert(timer);
+            timer = next;
+        }
+    }
+
+    private void acceptCancelled() {
+        for (Timer timer = cancelled.getAndSet(null); timer != null; ) {
+            Timer next = timer.nextCancelled;
+            timer.nextCancelled = null;
+            if (timer.level >= 0) unlink(timer);
+            timer = next;
+        }
+    }
+
+    private void advance() {
+        int index = (int) (now & MASK);
+        if (index == 0) cascade(1);
+
+        Timer timer = buckets[0][index];
+        buckets[0][index] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            timer.level = -1;
+            size--;
+            fire(timer);
+            timer = next;
+        }
+        now++;
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) return;
+        int index = (int) ((now >>> (BITS * level)) & MASK);
+        if (index == 0) cascade(level + 1);
+
+        Timer timer = buckets[level][index];
+        buckets[level][index] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            timer.level = -1;
+            size--;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.deadline - now;
+        int level = 0;
+        int index;
+        if (delta <= 0) {
+            index = (int) (now & MASK);
+        } else {
+            while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+                level++;
+            }
+            long slot = level == LEVELS - 1 && delta >= 1L << (BITS * LEVELS)
+                    ? now + (1L << (BITS * LEVELS)) - 1
+                    : timer.deadline;
+            index = (int) ((slot >>> (BITS * level)) & MASK);
+        }
+
+        Timer head = buckets[level][index];
+        timer.next = head;
+        timer.prev = null;
+        if (head != null) head.prev = timer;
+        buckets[level][index] = timer;
+        timer.level = level;
+        timer.slot = index;
+        size++;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) timer.next.prev = timer.prev;
+        timer.prev = timer.next = null;
+        timer.level = -1;
+        size--;
+    }
+
+    private void fire(Timer timer) {
+        if (timer.state.get() != PENDING) return;
+
+        boolean periodic = timer.period > 0;
+        if (!periodic && !timer.state.compareAndSet(PENDING, DONE)) return;
+
+        try {
+            timer.target.accept(periodic ? timer.factory.get() : timer.event);
+        } catch (RuntimeException e) {
+            log.warning("[Flux] Scheduled publish failed: " + e);
+        }
+
+        if (periodic && timer.state.get() == PENDING) {
+            timer.deadline += timer.period;
+            insert(timer);
+        }
+    }
+
+    private static final class Timer implements Scheduled {
+
+        private final TimingWheel wheel;
+        private final Consumer<Event> target;
+        private final Runnable onCancel;
+        private final Event event;
+        private final Supplier<? extends Event> factory;
+        private final long period;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long deadline;
+
+        private Timer prev;
+        private Timer next;
+        private int level = -1;
+        private int slot;
+        private Timer nextSubmitted;
+        private Timer nextCancelled;
+
+        private Timer(TimingWheel wheel, Consumer<Event> target, Runnable onCancel, Event event,
+                      Supplier<? extends Event> factory, long deadline, long period) {
+            this.wheel = wheel;
+            this.target = target;
+            this.onCancel = onCancel;
+            this.event = event;
+            this.factory = factory;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) return false;
+            push(wheel.cancelled, this, true);
+            if (onCancel != null) onCancel.run();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() != PENDING;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package me.a8kj.flux.internal.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free rate limiter based on the generic cell rate algorithm: a single CAS-updated
+ * "theoretical arrival time" stands in for a token bucket, so admitting an event costs one
+ * atomic read and one CAS and never allocates.
+ */
+public final class RateLimiter {
+
+    public enum Overflow {
+        SHED,
+        DEFER
+    }
+
+    public static final long ADMIT = 0L;
+    public static final long SHED = -1L;
+
+    private final long interval;
+    private final long tolerance;
+    private final long maxDeferNanos;
+    private final Overflow overflow;
+    private final AtomicLong arrival = new AtomicLong(System.nanoTime());
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    private RateLimiter(long permits, long periodNanos, int burst, Overflow overflow, long maxDeferNanos) {
+        if (permits <= 0 || periodNanos <= 0) throw new IllegalArgumentException("Rate must be positive");
+        if (burst <= 0) throw new IllegalArgumentException("Burst must be positive");
+        this.interval = Math.max(1L, periodNanos / permits);
+        this.tolerance = interval * (burst - 1);
+        this.overflow = overflow;
+        this.maxDeferNanos = maxDeferNanos;
+    }
+
+    /**
+     * Drops events above {@code permits} per period, allowing bursts of up to {@code burst}.
+     */
+    public static RateLimiter shedding(long permits, long period, TimeUnit unit, int burst) {
+        return new RateLimiter(permits, unit.toNanos(period), burst, Overflow.SHED, 0L);
+    }
+
+    /**
+     * Postpones events above the rate, shedding only those that would wait longer than {@code maxDelay}.
+     */
+    public static RateLimiter deferring(long permits, long period, TimeUnit unit, int burst, long maxDelay, TimeUnit delayUnit) {
+        return new RateLimiter(permits, unit.toNanos(period), burst, Overflow.DEFER, delayUnit.toNanos(maxDelay));
+    }
+
+    /**
+     * Returns {@link #ADMIT}, {@link #SHED}, or the number of nanoseconds the event must be deferred by.
+     */
+    public long acquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - now - tolerance;
+
+            if (wait > 0 && (overflow == Overflow.SHED || wait > maxDeferNanos)) {
+                shed.increment();
+                return SHED;
+            }
+            if (arrival.compareAndSet(current, base + interval)) {
+                if (wait <= 0) return ADMIT;
+                deferred.increment();
+                return wait;
+            }
+        }
+    }
+
+    public long shed() {
+        return shed.sum();
+    }
+
+    public long deferred() {
+        return deferred.sum();
+    }
+}
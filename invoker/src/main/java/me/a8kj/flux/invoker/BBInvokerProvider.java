@@ -2,6 +2,7 @@ package me.a8kj.flux.invoker;
 
 import me.a8kj.flux.api.FastInvoker;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.FixedValue;
 import net.bytebuddy.implementation.MethodCall;
 import net.bytebuddy.matcher.ElementMatchers;
 
@@ -33,8 +34,10 @@ public final class BBInvokerProvider implements InvokerProvider {
         try {
             method.setAccessible(true);
             return new ByteBuddy()
-                    .subclass(FastInvoker.class)
+                    .subclass(BoundInvoker.class)
                     .name(PKG + method.getDeclaringClass().getSimpleName() + "$" + method.getName())
+                    .method(ElementMatchers.named("method"))
+                    .intercept(FixedValue.reference(method))
                     .method(ElementMatchers.named("invoke"))
                     .intercept(
                             MethodCall.invoke(method)
@@ -0,0 +1,169 @@
+package me.a8kj.flux.invoker;
+
+import lombok.NonNull;
+import lombok.extern.java.Log;
+import me.a8kj.flux.api.FastInvoker;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link InvokerProvider} that never generates code on the calling thread.
+ *
+ * <p>{@link #provide(Method)} returns at once with an invoker backed by a {@link MethodHandleInvoker}
+ * and queues the delegate provider's invoker for generation on a small pool of daemon threads.
+ * When it is ready it is swapped into the returned invoker, so subscriptions already holding it
+ * pick it up on their next call. If generation fails the method handle stays in place.</p>
+ *
+ * <p>A warm-up starts when work is queued with nothing pending and ends when the queue drains;
+ * its duration is logged and kept as {@link #lastWarmup()}.</p>
+ */
+@Log
+public final class BackgroundInvokerProvider implements InvokerProvider {
+
+    /**
+     * One completed warm-up: how many invokers were generated, how many fell back to method
+     * handles, and the wall time from the first request to the last swap.
+     */
+    public record Warmup(int generated, int failed, long elapsedNanos) {
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private final InvokerProvider delegate;
+    private final ConcurrentMap<Method, SwappableInvoker> invokers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor generator;
+
+    private final Object lock = new Object();
+    private int pending;
+    private int generated;
+    private int failed;
+    private long startedNanos;
+    private volatile Warmup lastWarmup;
+
+    public BackgroundInvokerProvider() {
+        this(new BBInvokerProvider());
+    }
+
+    public BackgroundInvokerProvider(@NonNull InvokerProvider delegate) {
+        this(delegate, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public BackgroundInvokerProvider(@NonNull InvokerProvider delegate, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("Generator threads must be positive");
+        this.delegate = delegate;
+        this.generator = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "Flux-InvokerGen-" + THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.generator.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public FastInvoker provide(Method method) {
+        SwappableInvoker existing = invokers.get(method);
+        if (existing != null) return existing;
+
+        SwappableInvoker invoker = new SwappableInvoker(method, new MethodHandleInvoker(method));
+        existing = invokers.putIfAbsent(method, invoker);
+        if (existing != null) return existing;
+
+        begin();
+        generator.execute(() -> generate(method, invoker));
+        return invoker;
+    }
+
+    @Override
+    public void evict(Method method) {
+        invokers.remove(method);
+        delegate.evict(method);
+    }
+
+    @Override
+    public void clear() {
+        invokers.clear();
+        delegate.clear();
+    }
+
+    /**
+     * Whether every invoker handed out so far has been generated or has given up trying.
+     */
+    public boolean isWarm() {
+        synchronized (lock) {
+            return pending == 0;
+        }
+    }
+
+    /**
+     * Blocks until the current warm-up finishes or the timeout elapses.
+     *
+     * @return true if nothing is pending on return.
+     */
+    public boolean awaitWarmup(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+
+    public Optional<Warmup> lastWarmup() {
+        return Optional.ofNullable(lastWarmup);
+    }
+
+    private void generate(Method method, SwappableInvoker invoker) {
+        boolean success = false;
+        try {
+            if (invokers.get(method) == invoker) {
+                invoker.swap(delegate.provide(method));
+                success = true;
+            }
+        } catch (Throwable t) {
+            log.warning("[Flux] Keeping method handle invoker for " + method.getName() + ": " + t.getMessage());
+        } finally {
+            end(success);
+        }
+    }
+
+    private void begin() {
+        synchronized (lock) {
+            if (pending++ == 0) {
+                startedNanos = System.nanoTime();
+                generated = 0;
+                failed = 0;
+            }
+        }
+    }
+
+    private void end(boolean success) {
+        Warmup finished = null;
+        synchronized (lock) {
+            if (success) generated++;
+            else failed++;
+
+            if (--pending == 0) {
+                finished = new Warmup(generated, failed, System.nanoTime() - startedNanos);
+                lastWarmup = finished;
+                lock.notifyAll();
+            }
+        }
+        if (finished != null) {
+            log.info("[Flux] Invoker warm-up finished: " + finished.generated() + " generated, "
+                    + finished.failed() + " on method handles, " + finished.elapsedMillis() + "ms");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.api.FastInvoker;
+
+import java.lang.reflect.Method;
+
+/**
+ * A {@link FastInvoker} that always calls the same subscriber method.
+ */
+public interface BoundInvoker extends FastInvoker {
+    Method method();
+}
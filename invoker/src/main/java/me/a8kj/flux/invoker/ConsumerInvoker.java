@@ -0,0 +1,29 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.FastInvoker;
+
+import java.util.function.Consumer;
+
+/**
+ * Calls a {@link Consumer} subscribed without a listener object. Keeps the consumer reachable so
+ * diagnostics can name it instead of this class.
+ */
+public final class ConsumerInvoker implements FastInvoker {
+
+    private final Consumer<Event> consumer;
+
+    @SuppressWarnings("unchecked")
+    public ConsumerInvoker(Consumer<? extends Event> consumer) {
+        this.consumer = (Consumer<Event>) consumer;
+    }
+
+    public Consumer<?> consumer() {
+        return consumer;
+    }
+
+    @Override
+    public void invoke(Object listener, Event event) {
+        consumer.accept(event);
+    }
+}
@@ -0,0 +1,54 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.FastInvoker;
+import me.a8kj.flux.api.Subscription;
+
+/**
+ * Calls a fixed, ordered set of subscriptions for one event type from a single generated method,
+ * so every subscriber gets its own call site instead of sharing the megamorphic one in the
+ * execution strategies. Instances come from {@link FanOutCompiler}.
+ */
+public abstract class FanOut {
+
+    /**
+     * Receives each subscriber failure and returns what the dispatch should fail with.
+     */
+    @FunctionalInterface
+    public interface Failures {
+        Throwable failed(Throwable error, Subscription subscription, Event event);
+    }
+
+    protected final Object[] listeners;
+    protected final FastInvoker[] invokers;
+    private final Subscription[] subscriptions;
+    private final Failures failures;
+
+    protected FanOut(Subscription[] subscriptions, FastInvoker[] invokers, Failures failures) {
+        this.subscriptions = subscriptions;
+        this.invokers = invokers;
+        this.failures = failures;
+        this.listeners = new Object[subscriptions.length];
+        for (int i = 0; i < subscriptions.length; i++) {
+            listeners[i] = subscriptions[i].listener();
+        }
+    }
+
+    /**
+     * Invokes every subscription in order on the calling thread, skipping those that do not
+     * accept cancelled events once the event has been cancelled. A failing subscriber does not
+     * stop the ones after it.
+     *
+     * @return the first failure as mapped by {@link Failures}, or null if all of them succeeded.
+     */
+    public abstract Throwable dispatch(Event event);
+
+    public int size() {
+        return subscriptions.length;
+    }
+
+    protected final Throwable failed(Throwable error, int index, Event event, Throwable first) {
+        Throwable reported = failures.failed(error, subscriptions[index], event);
+        return first != null ? first : reported;
+    }
+}
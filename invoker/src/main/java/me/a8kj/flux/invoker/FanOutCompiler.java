@@ -0,0 +1,214 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.FastInvoker;
+import me.a8kj.flux.api.Subscription;
+import me.a8kj.flux.template.Cancellable;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link FanOut} for one event type.
+ *
+ * <p>Subscriber methods that are public on public classes are called directly with
+ * {@code invokevirtual}; anything else, including lambda subscriptions, goes through its invoker
+ * from its own call site. A generated invoker still waiting behind a
+ * {@link BackgroundInvokerProvider} is unwrapped once it has been swapped in.</p>
+ */
+public final class FanOutCompiler {
+
+    private static final String PKG = "me.a8kj.flux.generated.FanOut$";
+    private static final String FAN_OUT = Type.getInternalName(FanOut.class);
+    private static final String EVENT = Type.getInternalName(Event.class);
+    private static final String THROWABLE = Type.getInternalName(Throwable.class);
+    private static final String CANCELLABLE = Type.getInternalName(Cancellable.class);
+    private static final String INVOKER = Type.getInternalName(FastInvoker.class);
+    private static final String FAILED = Type.getMethodDescriptor(Type.getType(Throwable.class),
+            Type.getType(Throwable.class), Type.INT_TYPE, Type.getType(Event.class), Type.getType(Throwable.class));
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private FanOutCompiler() {
+    }
+
+    /**
+     * Whether a fan-out can stand in for the strategies: every subscription has to run inline.
+     */
+    public static boolean supports(List<Subscription> subscriptions) {
+        if (subscriptions.isEmpty()) return false;
+        for (Subscription sub : subscriptions) {
+            if (sub.mode() != Execution.SYNC) return false;
+        }
+        return true;
+    }
+
+    public static FanOut compile(Class<? extends Event> eventType, List<Subscription> subscriptions, FanOut.Failures failures) {
+        if (!supports(subscriptions)) throw new IllegalArgumentException("Only SYNC subscriptions can be fanned out");
+
+        Subscription[] subs = subscriptions.toArray(new Subscription[0]);
+        FastInvoker[] invokers = new FastInvoker[subs.length];
+        Method[] direct = new Method[subs.length];
+        MultipleParentClassLoader.Builder loaders = new MultipleParentClassLoader.Builder().append(FanOut.class, eventType);
+
+        for (int i = 0; i < subs.length; i++) {
+            invokers[i] = unwrap(subs[i].invoker());
+            Method method = invokers[i] instanceof BoundInvoker bound ? bound.method() : null;
+            if (method != null && isDirectlyCallable(method)) {
+                direct[i] = method;
+                loaders = loaders.append(method.getDeclaringClass(), method.getParameterTypes()[0]);
+            }
+        }
+
+        try {
+            return new ByteBuddy()
+                    .subclass(FanOut.class)
+                    .name(PKG + eventType.getSimpleName() + "$" + GENERATION.incrementAndGet())
+                    .method(ElementMatchers.named("dispatch"))
+                    .intercept(new Implementation.Simple(dispatcher(subs, direct, Cancellable.class.isAssignableFrom(eventType))))
+                    .make()
+                    .load(loaders.build(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded()
+                    .getDeclaredConstructor(Subscription[].class, FastInvoker[].class, FanOut.Failures.class)
+                    .newInstance(subs, invokers, failures);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate fan-out for event: " + eventType.getName(), e);
+        }
+    }
+
+    private static FastInvoker unwrap(FastInvoker invoker) {
+        if (invoker instanceof SwappableInvoker swappable && !(swappable.delegate() instanceof MethodHandleInvoker)) {
+            return swappable.delegate();
+        }
+        return invoker;
+    }
+
+    private static boolean isDirectlyCallable(Method method) {
+        int modifiers = method.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+                && isPublic(method.getDeclaringClass()) && isPublic(method.getParameterTypes()[0]);
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Emits, per subscription: an optional cancellation check, the call wrapped in its own
+     * handler, and a jump past the handler. Local 2 holds the first failure and is returned.
+     */
+    private static ByteCodeAppender dispatcher(Subscription[] subs, Method[] direct, boolean cancellable) {
+        return (mv, context, method) -> {
+            String owner = context.getInstrumentedType().getInternalName();
+            Object[] locals = {owner, EVENT, THROWABLE};
+            Label[] starts = new Label[subs.length];
+            Label[] ends = new Label[subs.length];
+            Label[] handlers = new Label[subs.length];
+            for (int i = 0; i < subs.length; i++) {
+                starts[i] = new Label();
+                ends[i] = new Label();
+                handlers[i] = new Label();
+                mv.visitTryCatchBlock(starts[i], ends[i], handlers[i], THROWABLE);
+            }
+
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitVarInsn(Opcodes.ASTORE, 2);
+
+            for (int i = 0; i < subs.length; i++) {
+                Label skip = new Label();
+                if (cancellable && !subs[i].ignoreCancelled()) {
+                    mv.visitVarInsn(Opcodes.ALOAD, 1);
+                    mv.visitTypeInsn(Opcodes.CHECKCAST, CANCELLABLE);
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CANCELLABLE, "isCancelled", "()Z", true);
+                    mv.visitJumpInsn(Opcodes.IFNE, skip);
+                }
+
+                mv.visitLabel(starts[i]);
+                if (direct[i] != null) {
+                    callDirect(mv, i, direct[i]);
+                } else {
+                    callInvoker(mv, i);
+                }
+                mv.visitLabel(ends[i]);
+                mv.visitJumpInsn(Opcodes.GOTO, skip);
+
+                mv.visitLabel(handlers[i]);
+                mv.visitFrame(Opcodes.F_FULL, locals.length, locals, 1, new Object[]{THROWABLE});
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitInsn(Opcodes.SWAP);
+                pushInt(mv, i);
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FAN_OUT, "failed", FAILED, false);
+                mv.visitVarInsn(Opcodes.ASTORE, 2);
+
+                mv.visitLabel(skip);
+                mv.visitFrame(Opcodes.F_FULL, locals.length, locals, 0, new Object[0]);
+            }
+
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitInsn(Opcodes.ARETURN);
+            return new ByteCodeAppender.Size(5, 3);
+        };
+    }
+
+    private static void callDirect(MethodVisitor mv, int index, Method method) {
+        String declaring = Type.getInternalName(method.getDeclaringClass());
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, FAN_OUT, "listeners", "[Ljava/lang/Object;");
+        pushInt(mv, index);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, declaring);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(method.getParameterTypes()[0]));
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, declaring, method.getName(), Type.getMethodDescriptor(method), false);
+
+        Class<?> returned = method.getReturnType();
+        if (returned == long.class || returned == double.class) {
+            mv.visitInsn(Opcodes.POP2);
+        } else if (returned != void.class) {
+            mv.visitInsn(Opcodes.POP);
+        }
+    }
+
+    private static void callInvoker(MethodVisitor mv, int index) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, FAN_OUT, "invokers", "[L" + INVOKER + ";");
+        pushInt(mv, index);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, FAN_OUT, "listeners", "[Ljava/lang/Object;");
+        pushInt(mv, index);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, INVOKER, "invoke", "(Ljava/lang/Object;L" + EVENT + ";)V", true);
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
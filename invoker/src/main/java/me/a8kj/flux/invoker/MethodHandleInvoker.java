@@ -0,0 +1,41 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.api.Event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Calls a subscriber method through a {@link MethodHandle} adapted to {@code (Object, Event)void}.
+ * Building one costs a lookup rather than a class definition, so it is usable immediately while
+ * a generated invoker is still being prepared.
+ */
+public final class MethodHandleInvoker implements BoundInvoker {
+
+    private static final MethodType SHAPE = MethodType.methodType(void.class, Object.class, Event.class);
+
+    private final Method method;
+    private final MethodHandle handle;
+
+    public MethodHandleInvoker(Method method) {
+        this.method = method;
+        try {
+            method.setAccessible(true);
+            this.handle = MethodHandles.lookup().unreflect(method).asType(SHAPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to unreflect subscriber method: " + method.getName(), e);
+        }
+    }
+
+    @Override
+    public Method method() {
+        return method;
+    }
+
+    @Override
+    public void invoke(Object listener, Event event) throws Throwable {
+        handle.invokeExact(listener, event);
+    }
+}
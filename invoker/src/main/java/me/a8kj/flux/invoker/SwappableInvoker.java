@@ -0,0 +1,38 @@
+package me.a8kj.flux.invoker;
+
+import me.a8kj.flux.api.Event;
+import me.a8kj.flux.api.FastInvoker;
+
+import java.lang.reflect.Method;
+
+/**
+ * Forwards to a delegate that can be replaced while subscriptions holding this invoker are live.
+ */
+final class SwappableInvoker implements BoundInvoker {
+
+    private final Method method;
+    private volatile FastInvoker delegate;
+
+    SwappableInvoker(Method method, FastInvoker initial) {
+        this.method = method;
+        this.delegate = initial;
+    }
+
+    void swap(FastInvoker replacement) {
+        this.delegate = replacement;
+    }
+
+    FastInvoker delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Method method() {
+        return method;
+    }
+
+    @Override
+    public void invoke(Object listener, Event event) throws Throwable {
+        delegate.invoke(listener, event);
+    }
+}
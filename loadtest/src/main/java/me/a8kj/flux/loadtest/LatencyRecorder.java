@@ -0,0 +1,65 @@
+package me.a8kj.flux.loadtest;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects end-to-end latencies, measured from when each event was supposed to be published.
+ *
+ * <p>Timing from the intended rather than the actual send time is what corrects for coordinated
+ * omission: if a publish stalls, every event queued behind it on that producer is charged the
+ * stall, instead of the producer silently sending fewer events while the engine is slow.</p>
+ */
+final class LatencyRecorder {
+
+    private final Histogram overall = new Histogram();
+    private final AtomicReference<Histogram> interval = new AtomicReference<>(new Histogram());
+    private final LongAdder published = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long measureFrom = Long.MAX_VALUE;
+
+    /**
+     * Starts recording events scheduled at or after {@code intended}; earlier ones are warm-up.
+     */
+    void measureFrom(long intended) {
+        this.measureFrom = intended;
+    }
+
+    void onPublish() {
+        published.increment();
+    }
+
+    void onComplete(long intended, long now, boolean failure) {
+        completed.increment();
+        if (failure) failed.increment();
+        if (intended - measureFrom < 0) return;
+
+        long latency = now - intended;
+        overall.record(latency);
+        interval.get().record(latency);
+    }
+
+    /**
+     * Returns the latencies recorded since the previous call and starts a new interval.
+     */
+    Histogram swapInterval() {
+        return interval.getAndSet(new Histogram());
+    }
+
+    Histogram overall() {
+        return overall;
+    }
+
+    long published() {
+        return published.sum();
+    }
+
+    long completed() {
+        return completed.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+}
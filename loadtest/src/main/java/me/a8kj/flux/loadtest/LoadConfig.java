@@ -0,0 +1,101 @@
+package me.a8kj.flux.loadtest;
+
+import me.a8kj.flux.annotation.Execution;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parameters of one run, parsed from {@code --name=value} arguments.
+ *
+ * @param producers       Publishing threads.
+ * @param rate            Total target publishes per second, split evenly across producers.
+ * @param warmupSeconds   Load applied before anything is recorded.
+ * @param durationSeconds Measured load after the warm-up.
+ * @param eventTypes      Distinct event classes published round-robin, 1 to {@link LoadEvent#TYPES}.
+ * @param mix             Subscribers per event type for each execution mode.
+ * @param workNanos       CPU time each subscriber burns per event.
+ * @param payloadBytes    Bytes allocated with every event.
+ * @param intervalMillis  Timeline sampling period.
+ * @param report          Where the JSON report is written.
+ */
+public record LoadConfig(
+        int producers,
+        long rate,
+        int warmupSeconds,
+        int durationSeconds,
+        int eventTypes,
+        Map<Execution, Integer> mix,
+        long workNanos,
+        int payloadBytes,
+        long intervalMillis,
+        Path report
+) {
+
+    public LoadConfig {
+        if (producers <= 0) throw new IllegalArgumentException("Producers must be positive");
+        if (rate < producers) throw new IllegalArgumentException("Rate must be at least one publish per producer per second");
+        if (warmupSeconds < 0 || durationSeconds <= 0) throw new IllegalArgumentException("Invalid run length");
+        if (eventTypes <= 0 || eventTypes > LoadEvent.TYPES) {
+            throw new IllegalArgumentException("Event types must be between 1 and " + LoadEvent.TYPES);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("At least one subscriber is required");
+        if (workNanos < 0 || payloadBytes < 0 || intervalMillis <= 0) throw new IllegalArgumentException("Invalid workload");
+        mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+    }
+
+    public static LoadConfig parse(String[] args) {
+        int producers = 4;
+        long rate = 100_000;
+        int warmup = 10;
+        int duration = 60;
+        int types = 4;
+        Map<Execution, Integer> mix = parseMix("SYNC:4,VIRTUAL:1");
+        long work = 1_000;
+        int payload = 64;
+        long interval = 1_000;
+        Path report = Path.of("loadtest-report.json");
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            String name = arg.substring(2, split);
+            String value = arg.substring(split + 1);
+            switch (name) {
+                case "producers" -> producers = Integer.parseInt(value);
+                case "rate" -> rate = Long.parseLong(value);
+                case "warmup" -> warmup = Integer.parseInt(value);
+                case "duration" -> duration = Integer.parseInt(value);
+                case "types" -> types = Integer.parseInt(value);
+                case "mix" -> mix = parseMix(value);
+                case "work" -> work = Long.parseLong(value);
+                case "payload" -> payload = Integer.parseInt(value);
+                case "interval" -> interval = Long.parseLong(value);
+                case "report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return new LoadConfig(producers, rate, warmup, duration, types, mix, work, payload, interval, report);
+    }
+
+    /**
+     * Parses {@code MODE:count} pairs such as {@code SYNC:4,VIRTUAL:2,ASYNC:1}.
+     */
+    static Map<Execution, Integer> parseMix(String value) {
+        Map<Execution, Integer> mix = new EnumMap<>(Execution.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) throw new IllegalArgumentException("Expected MODE:count but got: " + part);
+            int count = Integer.parseInt(pair[1]);
+            if (count < 0) throw new IllegalArgumentException("Subscriber count cannot be negative: " + part);
+            if (count > 0) mix.merge(Execution.valueOf(pair[0].trim().toUpperCase()), count, Integer::sum);
+        }
+        return mix;
+    }
+
+    public int subscribersPerType() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,99 @@
+package me.a8kj.flux.loadtest;
+
+import me.a8kj.flux.api.Event;
+
+import java.util.List;
+
+/**
+ * Events published by the load generator. Each subclass is a separate event type to the engine;
+ * {@link #intended} is the time the event was scheduled to be published, not when it was.
+ */
+public abstract sealed class LoadEvent implements Event {
+
+    public static final int TYPES = 8;
+
+    private final long intended;
+    private final byte[] payload;
+
+    private LoadEvent(long intended, int payloadBytes) {
+        this.intended = intended;
+        this.payload = new byte[payloadBytes];
+    }
+
+    public long intended() {
+        return intended;
+    }
+
+    public int payloadSize() {
+        return payload.length;
+    }
+
+    private static final List<Class<? extends LoadEvent>> CLASSES = List.of(
+            T0.class, T1.class, T2.class, T3.class, T4.class, T5.class, T6.class, T7.class);
+
+    public static Class<? extends LoadEvent> type(int index) {
+        return CLASSES.get(index);
+    }
+
+    public static LoadEvent create(int type, long intended, int payloadBytes) {
+        return switch (type) {
+            case 0 -> new T0(intended, payloadBytes);
+            case 1 -> new T1(intended, payloadBytes);
+            case 2 -> new T2(intended, payloadBytes);
+            case 3 -> new T3(intended, payloadBytes);
+            case 4 -> new T4(intended, payloadBytes);
+            case 5 -> new T5(intended, payloadBytes);
+            case 6 -> new T6(intended, payloadBytes);
+            case 7 -> new T7(intended, payloadBytes);
+            default -> throw new IllegalArgumentException("No event type " + type);
+        };
+    }
+
+    public static final class T0 extends LoadEvent {
+        T0(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T1 extends LoadEvent {
+        T1(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T2 extends LoadEvent {
+        T2(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T3 extends LoadEvent {
+        T3(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T4 extends LoadEvent {
+        T4(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T5 extends LoadEvent {
+        T5(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T6 extends LoadEvent {
+        T6(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+
+    public static final class T7 extends LoadEvent {
+        T7(long intended, int payloadBytes) {
+            super(intended, payloadBytes);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package me.a8kj.flux.loadtest;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.annotation.Execution;
+import me.a8kj.flux.api.Engine;
+import me.a8kj.flux.internal.EngineBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs sustained multi-producer load against a {@link me.a8kj.flux.internal.DefaultEngine} and
+ * writes a JSON report.
+ *
+ * <pre>
+ * java -jar loadtest.jar --producers=8 --rate=200000 --warmup=10 --duration=60 \
+ *     --types=4 --mix=SYNC:4,VIRTUAL:2,ASYNC:1 --work=2000 --payload=128 --report=out.json
+ * </pre>
+ *
+ * <p>Subscribers burn {@code --work} nanoseconds of CPU each. TICK subscribers are drained by a
+ * dedicated thread every millisecond. A run whose completion rate falls short of the target
+ * rate is saturated, and its latencies grow with the run length.</p>
+ */
+@Log
+public final class LoadTest {
+
+    private static final long DRAIN_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long QUIESCE_MILLIS = 10_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        String json = run(config);
+        Report.write(config.report(), json);
+        log.info("[Flux] Load test report written to " + config.report().toAbsolutePath());
+    }
+
+    public static String run(LoadConfig config) throws InterruptedException {
+        Engine engine = EngineBuilder.create().build();
+        subscribe(engine, config);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Thread drainer = config.mix().containsKey(Execution.TICK) ? startDrainer(engine) : null;
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        recorder.measureFrom(measureFrom);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < config.producers(); i++) {
+            Thread thread = new Thread(new Producer(engine, recorder, config, start, end, i), "Flux-LoadProducer-" + i);
+            producers.add(thread);
+        }
+
+        try (RuntimeSampler sampler = new RuntimeSampler(recorder, config.intervalMillis())) {
+            sampler.start();
+            producers.forEach(Thread::start);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            awaitCompletions(recorder);
+
+            double measured = Math.max(1e-9, (Math.min(System.nanoTime(), end) - measureFrom) / 1e9);
+            String json = Report.render(config, recorder, sampler, measured);
+            log.info(String.format("[Flux] %d published, %d completed, p99 %.1fus, max %.1fus",
+                    recorder.published(), recorder.completed(),
+                    recorder.overall().percentile(99) / 1_000.0, recorder.overall().max() / 1_000.0));
+            return json;
+        } finally {
+            if (drainer != null) drainer.interrupt();
+            engine.shutdown();
+        }
+    }
+
+    private static void subscribe(Engine engine, LoadConfig config) {
+        long work = config.workNanos();
+        for (int type = 0; type < config.eventTypes(); type++) {
+            Class<? extends LoadEvent> eventType = LoadEvent.type(type);
+            for (Map.Entry<Execution, Integer> entry : config.mix().entrySet()) {
+                for (int i = 0; i < entry.getValue(); i++) {
+                    engine.subscribe(eventType, event -> burn(work), entry.getKey());
+                }
+            }
+        }
+    }
+
+    private static void burn(long nanos) {
+        if (nanos == 0) return;
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() - until < 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Thread startDrainer(Engine engine) {
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                engine.drain(DRAIN_PERIOD_NANOS);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(DRAIN_PERIOD_NANOS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "Flux-LoadDrainer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitCompletions(LatencyRecorder recorder) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + QUIESCE_MILLIS;
+        while (recorder.completed() < recorder.published() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        if (recorder.completed() < recorder.published()) {
+            log.warning("[Flux] " + (recorder.published() - recorder.completed()) + " publishes still pending after "
+                    + QUIESCE_MILLIS + "ms");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package me.a8kj.flux.loadtest;
+
+import me.a8kj.flux.api.Engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes at a constant rate on its own schedule. Each event's send time is fixed up front
+ * as {@code start + n * interval}; a producer that falls behind publishes immediately to catch
+ * up rather than shifting its schedule.
+ */
+final class Producer implements Runnable {
+
+    private static final long SPIN_NANOS = 50_000;
+
+    private final Engine engine;
+    private final LatencyRecorder recorder;
+    private final long startNanos;
+    private final long endNanos;
+    private final long intervalNanos;
+    private final int eventTypes;
+    private final int payloadBytes;
+    private final int offset;
+
+    Producer(Engine engine, LatencyRecorder recorder, LoadConfig config, long startNanos, long endNanos, int index) {
+        this.engine = engine;
+        this.recorder = recorder;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.intervalNanos = Math.max(1L, 1_000_000_000L * config.producers() / config.rate());
+        this.eventTypes = config.eventTypes();
+        this.payloadBytes = config.payloadBytes();
+        this.offset = index;
+    }
+
+    @Override
+    public void run() {
+        for (long n = 0; ; n++) {
+            long intended = startNanos + n * intervalNanos;
+            if (intended - endNanos >= 0 || Thread.currentThread().isInterrupted()) return;
+            awaitUntil(intended);
+
+            LoadEvent event = LoadEvent.create((int) ((n + offset) % eventTypes), intended, payloadBytes);
+            recorder.onPublish();
+            engine.publish(event).unwrap().whenComplete((ignored, error) ->
+                    recorder.onComplete(intended, System.nanoTime(), error != null));
+        }
+    }
+
+    private static void awaitUntil(long deadline) {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
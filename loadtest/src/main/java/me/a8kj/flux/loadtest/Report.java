@@ -0,0 +1,117 @@
+package me.a8kj.flux.loadtest;
+
+import me.a8kj.flux.annotation.Execution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders a finished run as JSON. Latencies are in microseconds and corrected for coordinated
+ * omission; see {@link LatencyRecorder}.
+ */
+final class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final StringBuilder json = new StringBuilder(4096);
+
+    static String render(LoadConfig config, LatencyRecorder recorder, RuntimeSampler sampler, double measuredSeconds) {
+        Report report = new Report();
+        report.write(config, recorder, sampler, measuredSeconds);
+        return report.json.toString();
+    }
+
+    static void write(Path path, String json) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(path, json);
+    }
+
+    private void write(LoadConfig config, LatencyRecorder recorder, RuntimeSampler sampler, double measuredSeconds) {
+        Histogram latencies = recorder.overall();
+
+        json.append("{\n  \"config\": {");
+        field("producers", config.producers()).append(',');
+        field("rate", config.rate()).append(',');
+        field("warmupSeconds", config.warmupSeconds()).append(',');
+        field("durationSeconds", config.durationSeconds()).append(',');
+        field("eventTypes", config.eventTypes()).append(',');
+        key("mix").append('{');
+        boolean first = true;
+        for (Map.Entry<Execution, Integer> entry : config.mix().entrySet()) {
+            if (!first) json.append(',');
+            field(entry.getKey().name(), entry.getValue());
+            first = false;
+        }
+        json.append("},");
+        field("workNanos", config.workNanos()).append(',');
+        field("payloadBytes", config.payloadBytes()).append(',');
+        field("javaVersion", System.getProperty("java.version")).append(',');
+        field("availableProcessors", Runtime.getRuntime().availableProcessors());
+        json.append("},\n  \"summary\": {");
+        field("published", recorder.published()).append(',');
+        field("completed", recorder.completed()).append(',');
+        field("failed", recorder.failed()).append(',');
+        field("measured", latencies.count()).append(',');
+        field("throughput", latencies.count() / measuredSeconds).append(',');
+        field("peakThreads", sampler.peakThreads());
+        json.append("},\n  \"latencyMicros\": {");
+        for (double percentile : PERCENTILES) {
+            field("p" + format(percentile).replace(".", "_"), latencies.percentile(percentile) / 1_000.0).append(',');
+        }
+        field("mean", latencies.mean() / 1_000.0).append(',');
+        field("max", latencies.max() / 1_000.0);
+        json.append("},\n  \"gc\": {");
+        field("pauses", sampler.pauses()).append(',');
+        field("totalPauseMillis", sampler.pauseMillis()).append(',');
+        field("maxPauseMillis", sampler.maxPauseMillis()).append(',');
+        field("concurrentCycles", sampler.concurrentCycles());
+        json.append("},\n  \"timeline\": [");
+
+        first = true;
+        for (RuntimeSampler.Sample sample : sampler.timeline()) {
+            json.append(first ? "\n    {" : ",\n    {");
+            field("t", sample.elapsedSeconds()).append(',');
+            field("publishRate", sample.publishRate()).append(',');
+            field("completionRate", sample.completionRate()).append(',');
+            field("p50Micros", sample.p50Micros()).append(',');
+            field("p99Micros", sample.p99Micros()).append(',');
+            field("maxMicros", sample.maxMicros()).append(',');
+            field("gcPauses", sample.gcPauses()).append(',');
+            field("gcPauseMillis", sample.gcPauseMillis()).append(',');
+            field("threads", sample.threads()).append(',');
+            field("allocatedMBps", sample.allocatedMegabytesPerSecond()).append(',');
+            field("heapUsedMB", sample.heapUsedMegabytes());
+            json.append('}');
+            first = false;
+        }
+        json.append("\n  ]\n}\n");
+    }
+
+    private StringBuilder key(String name) {
+        return json.append('"').append(name).append("\": ");
+    }
+
+    private StringBuilder field(String name, long value) {
+        return key(name).append(value);
+    }
+
+    private StringBuilder field(String name, double value) {
+        return key(name).append(Double.isFinite(value) ? format(value) : "null");
+    }
+
+    private StringBuilder field(String name, String value) {
+        return key(name).append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+    }
+
+    private static String format(double value) {
+        String text = String.format(Locale.ROOT, "%.3f", value);
+        int end = text.length();
+        while (text.charAt(end - 1) == '0') end--;
+        if (text.charAt(end - 1) == '.') end--;
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,190 @@
+package me.a8kj.flux.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples the JVM and the latency recorder once per interval into a timeline.
+ *
+ * <p>GC pauses come from collector notifications rather than the cumulative collection time,
+ * so individual pauses are visible. Collections reported by concurrent-cycle beans (ZGC and
+ * Shenandoah "Cycles", G1's concurrent marking) mostly run alongside the application and are
+ * counted separately from pauses.</p>
+ */
+final class RuntimeSampler implements AutoCloseable {
+
+    /**
+     * One timeline point. Rates are per second over the interval; latencies are in microseconds.
+     */
+    record Sample(
+            double elapsedSeconds,
+            double publishRate,
+            double completionRate,
+            long p50Micros,
+            long p99Micros,
+            long maxMicros,
+            int gcPauses,
+            double gcPauseMillis,
+            int threads,
+            double allocatedMegabytesPerSecond,
+            double heapUsedMegabytes
+    ) {
+    }
+
+    private final LatencyRecorder recorder;
+    private final long intervalMillis;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<Sample> timeline = new ArrayList<>();
+    private final List<Runnable> unsubscribe = new ArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "Flux-LoadSampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder intervalPauses = new LongAdder();
+    private final AtomicLong intervalPauseMicros = new AtomicLong();
+    private final LongAdder pauses = new LongAdder();
+    private final LongAdder concurrentCycles = new LongAdder();
+    private final AtomicLong pauseMicros = new AtomicLong();
+    private final AtomicLong maxPauseMicros = new AtomicLong();
+    private int peakThreads;
+
+    private long startNanos;
+    private long lastNanos;
+    private long lastPublished;
+    private long lastCompleted;
+    private long lastAllocated;
+
+    RuntimeSampler(LatencyRecorder recorder, long intervalMillis) {
+        this.recorder = recorder;
+        this.intervalMillis = intervalMillis;
+    }
+
+    void start() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter emitter)) continue;
+            NotificationListener listener = this::onCollection;
+            emitter.addNotificationListener(listener, null, null);
+            unsubscribe.add(() -> {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (Exception ignored) {
+                }
+            });
+        }
+
+        startNanos = lastNanos = System.nanoTime();
+        lastPublished = recorder.published();
+        lastCompleted = recorder.completed();
+        lastAllocated = allocatedBytes();
+        ticker.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void onCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (isConcurrentCycle(info)) {
+            concurrentCycles.increment();
+            return;
+        }
+
+        long micros = info.getGcInfo().getDuration() * 1_000L;
+        pauses.increment();
+        intervalPauses.increment();
+        pauseMicros.addAndGet(micros);
+        intervalPauseMicros.addAndGet(micros);
+        maxPauseMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private static boolean isConcurrentCycle(GarbageCollectionNotificationInfo info) {
+        String name = info.getGcName();
+        return name.contains("Cycles") || (name.contains("Concurrent") && !info.getGcAction().contains("pause"));
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastNanos) / 1e9;
+        long published = recorder.published();
+        long completed = recorder.completed();
+        long allocated = allocatedBytes();
+        Histogram latencies = recorder.swapInterval();
+        int live = threads.getThreadCount();
+        peakThreads = Math.max(peakThreads, live);
+
+        timeline.add(new Sample(
+                (now - startNanos) / 1e9,
+                (published - lastPublished) / seconds,
+                (completed - lastCompleted) / seconds,
+                latencies.percentile(50) / 1_000,
+                latencies.percentile(99) / 1_000,
+                latencies.max() / 1_000,
+                (int) intervalPauses.sumThenReset(),
+                intervalPauseMicros.getAndSet(0) / 1_000.0,
+                live,
+                allocated < 0 ? -1 : (allocated - lastAllocated) / seconds / (1 << 20),
+                memory.getHeapMemoryUsage().getUsed() / (double) (1 << 20)
+        ));
+
+        lastNanos = now;
+        lastPublished = published;
+        lastCompleted = completed;
+        lastAllocated = allocated;
+    }
+
+    /**
+     * Bytes allocated by all threads so far, or -1 where the JVM does not track it.
+     */
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean extended && extended.isThreadAllocatedMemoryEnabled()) {
+            return extended.getTotalThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    synchronized List<Sample> timeline() {
+        return List.copyOf(timeline);
+    }
+
+    synchronized int peakThreads() {
+        return Math.max(peakThreads, threads.getPeakThreadCount());
+    }
+
+    long pauses() {
+        return pauses.sum();
+    }
+
+    long concurrentCycles() {
+        return concurrentCycles.sum();
+    }
+
+    double pauseMillis() {
+        return pauseMicros.get() / 1_000.0;
+    }
+
+    double maxPauseMillis() {
+        return maxPauseMicros.get() / 1_000.0;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        unsubscribe.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,269 @@
+package me.a8kj.flux.template.capability;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.a8kj.flux.template.Pair;
+import me.a8kj.flux.template.Switchable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A lock-free {@link Bitmask} backed by a {@code long[]} of any width.
+ *
+ * <p>Every single-bit update is an atomic read-modify-write on its word, so concurrent toggles
+ * of different flags never overwrite each other. Keys are resolved to bit indexes once, at
+ * {@link #register}; callers on a hot path should cache {@link #indexOf} and use
+ * {@link #isEnabled(int)}, which is a single array read.</p>
+ *
+ * <p>Bulk operations work a whole word at a time. Each word is updated atomically, but the
+ * operation as a whole is not a single atomic step across words.</p>
+ *
+ * <p>Several keys may share a bit. Registration counts the keys holding each bit, and a bit is
+ * only cleared once the last of them is unregistered or moved to another bit.</p>
+ */
+public class AtomicBitmask<K> implements Bitmask<K> {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Map<K, Switchable> flags = new ConcurrentHashMap<>();
+    private final Map<K, Integer> indexes = new ConcurrentHashMap<>();
+    private final long[] words;
+    private final int[] holders;
+
+    @Getter
+    private final int capacity;
+
+    public AtomicBitmask() {
+        this(Long.SIZE);
+    }
+
+    /**
+     * @param capacity The number of bits this mask can hold.
+     */
+    public AtomicBitmask(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.words = new long[(capacity + Long.SIZE - 1) >>> 6];
+        this.holders = new int[capacity];
+    }
+
+    /**
+     * Maps the key to its switchable's bit. Re-registering a key with a different bit releases
+     * the one it held before.
+     */
+    @Override
+    public synchronized void register(@NonNull K key, @NonNull Switchable value) {
+        int bit = value.getBit();
+        checkIndex(bit);
+        holders[bit]++;
+        Integer previous = indexes.put(key, bit);
+        flags.put(key, value);
+        if (previous != null) release(previous);
+    }
+
+    /**
+     * Removes the key and clears its bit unless another key still maps to it.
+     */
+    @Override
+    public synchronized void unregister(@NonNull K key) {
+        flags.remove(key);
+        Integer bit = indexes.remove(key);
+        if (bit != null) release(bit);
+    }
+
+    @Override
+    public boolean hasEntry(@NonNull K key) {
+        return flags.containsKey(key);
+    }
+
+    @Override
+    public @NonNull Optional<Switchable> get(@NonNull K key) {
+        return Optional.ofNullable(flags.get(key));
+    }
+
+    /**
+     * Returns the bit index registered for the key, or -1 if it is unknown.
+     */
+    public int indexOf(@NonNull K key) {
+        Integer bit = indexes.get(key);
+        return bit == null ? -1 : bit;
+    }
+
+    @Override
+    public boolean isEnabled(@NonNull K key) {
+        int bit = indexOf(key);
+        return bit >= 0 && isEnabled(bit);
+    }
+
+    public boolean isEnabled(int bit) {
+        checkIndex(bit);
+        return ((long) WORDS.getAcquire(words, bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void setEnabled(@NonNull K key, boolean state) {
+        int bit = indexOf(key);
+        if (bit >= 0) setEnabled(bit, state);
+    }
+
+    /**
+     * @return The previous state of the bit.
+     */
+    public boolean setEnabled(int bit, boolean state) {
+        checkIndex(bit);
+        long mask = 1L << bit;
+        long previous = state
+                ? (long) WORDS.getAndBitwiseOr(words, bit >>> 6, mask)
+                : (long) WORDS.getAndBitwiseAnd(words, bit >>> 6, ~mask);
+        return (previous & mask) != 0;
+    }
+
+    /**
+     * Atomically flips the bit.
+     *
+     * @return The new state of the bit.
+     */
+    public boolean toggle(int bit) {
+        checkIndex(bit);
+        long mask = 1L << bit;
+        return ((long) WORDS.getAndBitwiseXor(words, bit >>> 6, mask) & mask) == 0;
+    }
+
+    /**
+     * Keeps only the bits that are also set in {@code other}.
+     */
+    public void and(@NonNull AtomicBitmask<?> other) {
+        for (int i = 0; i < words.length; i++) {
+            long mask = i < other.words.length ? (long) WORDS.getAcquire(other.words, i) : 0L;
+            if (mask != -1L) WORDS.getAndBitwiseAnd(words, i, mask);
+        }
+    }
+
+    /**
+     * Sets every bit that is set in {@code other}.
+     */
+    public void or(@NonNull AtomicBitmask<?> other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            long mask = (long) WORDS.getAcquire(other.words, i);
+            if (mask != 0L) WORDS.getAndBitwiseOr(words, i, mask);
+        }
+        for (int i = shared; i < other.words.length; i++) {
+            if ((long) WORDS.getAcquire(other.words, i) != 0L) {
+                throw new IllegalArgumentException("Other mask has bits beyond this mask's capacity");
+            }
+        }
+    }
+
+    /**
+     * Clears every bit that is set in {@code other}.
+     */
+    public void andNot(@NonNull AtomicBitmask<?> other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            long mask = (long) WORDS.getAcquire(other.words, i);
+            if (mask != 0L) WORDS.getAndBitwiseAnd(words, i, ~mask);
+        }
+    }
+
+    /**
+     * @return {@code true} if every bit set in {@code other} is also set here.
+     */
+    public boolean containsAll(@NonNull AtomicBitmask<?> other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long required = (long) WORDS.getAcquire(other.words, i);
+            long present = i < words.length ? (long) WORDS.getAcquire(words, i) : 0L;
+            if ((present & required) != required) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if at least one bit is set in both masks.
+     */
+    public boolean intersects(@NonNull AtomicBitmask<?> other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            if (((long) WORDS.getAcquire(words, i) & (long) WORDS.getAcquire(other.words, i)) != 0L) return true;
+        }
+        return false;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            count += Long.bitCount((long) WORDS.getAcquire(words, i));
+        }
+        return count;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            WORDS.setRelease(words, i, 0L);
+        }
+    }
+
+    /**
+     * Returns a copy of the words, read one at a time.
+     */
+    public long[] toLongArray() {
+        long[] copy = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            copy[i] = (long) WORDS.getAcquire(words, i);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns bits 0 to 63 only; wider masks should use {@link #toLongArray()}.
+     */
+    @Override
+    public long getRawMask() {
+        return (long) WORDS.getAcquire(words, 0);
+    }
+
+    /**
+     * Replaces bits 0 to 63 only.
+     */
+    @Override
+    public void setRawMask(long mask) {
+        if (capacity < Long.SIZE && (mask >>> capacity) != 0L) {
+            throw new IllegalArgumentException("Mask has bits beyond capacity " + capacity);
+        }
+        WORDS.setRelease(words, 0, mask);
+    }
+
+    @Override
+    public @NonNull Map<K, Switchable> asMap() {
+        return Collections.unmodifiableMap(flags);
+    }
+
+    @Override
+    public @NonNull Iterable<Pair<K, Switchable>> entries() {
+        return flags.entrySet().stream()
+                .map(e -> new Pair<K, Switchable>(e.getKey(), e.getValue()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public String toString() {
+        return "AtomicBitmask" + Arrays.toString(toLongArray());
+    }
+
+    private void release(int bit) {
+        if (--holders[bit] == 0) setEnabled(bit, false);
+    }
+
+    private void checkIndex(int bit) {
+        if (bit < 0 || bit >= capacity) {
+            throw new IndexOutOfBoundsException("Bit " + bit + " is outside capacity " + capacity);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package me.a8kj.flux.template.collections.impl;
+
+import me.a8kj.flux.template.collections.MutableHolder;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link MutableHolder} over a persistent hash array mapped trie.
+ *
+ * <p>Every write builds a new trie that shares all untouched nodes with the previous one and
+ * publishes it with a single CAS, so {@code add}, {@code remove} and {@code contains} cost
+ * O(log<sub>32</sub> n) — at most seven levels — instead of the O(n) copy of a
+ * {@code CopyOnWriteArraySet}. {@link #snapshot()} just captures the current root: it is O(1),
+ * never blocks writers and stays unchanged while they carry on.</p>
+ */
+public class PersistentSetHolder<T> implements MutableHolder<T> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final AtomicReference<Trie> trie = new AtomicReference<>(Trie.EMPTY);
+
+    public PersistentSetHolder() {
+    }
+
+    public PersistentSetHolder(Collection<T> initial) {
+        trie.set(build(initial));
+    }
+
+    @Override
+    public boolean contains(T element) {
+        return element != null && trie.get().contains(element);
+    }
+
+    @Override
+    public void add(T element) {
+        if (element == null) throw new NullPointerException("Element cannot be null");
+        int hash = hash(element);
+        while (true) {
+            Trie current = trie.get();
+            Node root = current.root.add(element, hash, 0);
+            if (root == current.root || trie.compareAndSet(current, new Trie(root, current.size + 1))) return;
+        }
+    }
+
+    @Override
+    public void remove(T element) {
+        if (element == null) return;
+        int hash = hash(element);
+        while (true) {
+            Trie current = trie.get();
+            Node root = current.root.remove(element, hash, 0);
+            if (root == current.root) return;
+            Trie next = root == null ? Trie.EMPTY : new Trie(root, current.size - 1);
+            if (trie.compareAndSet(current, next)) return;
+        }
+    }
+
+    /**
+     * Atomically replaces the whole content; readers see either the old set or the new one.
+     */
+    @Override
+    public void update(Collection<T> collection) {
+        trie.set(build(collection));
+    }
+
+    /**
+     * Applies {@code function} to the current snapshot and publishes the result, retrying if
+     * another writer got in first. The function may run more than once.
+     */
+    public void update(UnaryOperator<Set<T>> function) {
+        while (true) {
+            Trie current = trie.get();
+            Trie next = build(function.apply(new Snapshot<>(current)));
+            if (trie.compareAndSet(current, next)) return;
+        }
+    }
+
+    @Override
+    public void clear() {
+        trie.set(Trie.EMPTY);
+    }
+
+    @Override
+    public Optional<T> any() {
+        return first();
+    }
+
+    @Override
+    public Optional<T> first() {
+        Iterator<T> iterator = new Snapshot<T>(trie.get()).iterator();
+        return iterator.hasNext() ? Optional.of(iterator.next()) : Optional.empty();
+    }
+
+    /**
+     * Returns an immutable view of the set as of this call, in O(1).
+     */
+    @Override
+    public Set<T> snapshot() {
+        return new Snapshot<>(trie.get());
+    }
+
+    @Override
+    public Collection<T> elements() {
+        return snapshot();
+    }
+
+    @Override
+    public int size() {
+        return trie.get().size;
+    }
+
+    private Trie build(Collection<T> elements) {
+        Node root = Trie.EMPTY.root;
+        int size = 0;
+        for (T element : elements) {
+            if (element == null) throw new NullPointerException("Element cannot be null");
+            Node next = root.add(element, hash(element), 0);
+            if (next != root) size++;
+            root = next;
+        }
+        return size == 0 ? Trie.EMPTY : new Trie(root, size);
+    }
+
+    private static int hash(Object element) {
+        int h = element.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private record Trie(Node root, int size) {
+        private static final Trie EMPTY = new Trie(new BitmapNode(0, new Object[0]), 0);
+
+        private boolean contains(Object element) {
+            return root.contains(element, hash(element), 0);
+        }
+    }
+
+    private abstract static sealed class Node permits BitmapNode, CollisionNode {
+
+        abstract boolean contains(Object element, int hash, int shift);
+
+        /**
+         * @return this node if the element was already present.
+         */
+        abstract Node add(Object element, int hash, int shift);
+
+        /**
+         * @return this node if the element was absent, or null if the node became empty.
+         */
+        abstract Node remove(Object element, int hash, int shift);
+
+        /**
+         * Returns the only element if this node holds exactly one element and no children,
+         * so the parent can inline it.
+         */
+        abstract Object single();
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return false;
+
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            return slot instanceof Node child ? child.contains(element, hash, shift + BITS) : slot.equals(element);
+        }
+
+        @Override
+        Node add(Object element, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = element;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+
+            Object slot = slots[index];
+            Node replacement;
+            if (slot instanceof Node child) {
+                replacement = child.add(element, hash, shift + BITS);
+                if (replacement == child) return this;
+            } else {
+                if (slot.equals(element)) return this;
+                replacement = merge(slot, hash(slot), element, hash, shift + BITS);
+            }
+            return withSlot(index, replacement);
+        }
+
+        @Override
+        Node remove(Object element, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            if (slot instanceof Node child) {
+                Node replacement = child.remove(element, hash, shift + BITS);
+                if (replacement == child) return this;
+                if (replacement == null) return without(bit, index);
+
+                Object single = replacement.single();
+                return withSlot(index, single != null ? single : replacement);
+            }
+            return slot.equals(element) ? without(bit, index) : this;
+        }
+
+        @Override
+        Object single() {
+            return slots.length == 1 && !(slots[0] instanceof Node) ? slots[0] : null;
+        }
+
+        private Node withSlot(int index, Object value) {
+            Object[] copy = slots.clone();
+            copy[index] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private Node without(int bit, int index) {
+            if (slots.length == 1) return null;
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        private static Node merge(Object first, int firstHash, Object second, int secondHash, int shift) {
+            if (firstHash == secondHash) {
+                return new CollisionNode(firstHash, new Object[]{first, second});
+            }
+            int firstIndex = (firstHash >>> shift) & MASK;
+            int secondIndex = (secondHash >>> shift) & MASK;
+            if (firstIndex == secondIndex) {
+                return new BitmapNode(1 << firstIndex,
+                        new Object[]{merge(first, firstHash, second, secondHash, shift + BITS)});
+            }
+            return new BitmapNode((1 << firstIndex) | (1 << secondIndex), firstIndex < secondIndex
+                    ? new Object[]{first, second}
+                    : new Object[]{second, first});
+        }
+    }
+
+    /**
+     * Holds elements whose full 32-bit hashes are equal.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Object[] elements;
+
+        private CollisionNode(int hash, Object[] elements) {
+            this.hash = hash;
+            this.elements = elements;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            return hash == this.hash && indexOf(element) >= 0;
+        }
+
+        @Override
+        Node add(Object element, int hash, int shift) {
+            if (hash != this.hash) {
+                return new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[]{this})
+                        .add(element, hash, shift);
+            }
+            if (indexOf(element) >= 0) return this;
+
+            Object[] copy = new Object[elements.length + 1];
+            System.arraycopy(elements, 0, copy, 0, elements.length);
+            copy[elements.length] = element;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(Object element, int hash, int shift) {
+            int index = hash == this.hash ? indexOf(element) : -1;
+            if (index < 0) return this;
+            if (elements.length == 1) return null;
+
+            Object[] copy = new Object[elements.length - 1];
+            System.arraycopy(elements, 0, copy, 0, index);
+            System.arraycopy(elements, index + 1, copy, index, elements.length - index - 1);
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Object single() {
+            return elements.length == 1 ? elements[0] : null;
+        }
+
+        private int indexOf(Object element) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i].equals(element)) return i;
+            }
+            return -1;
+        }
+    }
+
+    private static final class Snapshot<T> extends AbstractSet<T> {
+
+        private final Trie trie;
+
+        private Snapshot(Trie trie) {
+            this.trie = trie;
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            return element != null && trie.contains(element);
+        }
+
+        @Override
+        public int size() {
+            return trie.size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Walker<>(trie.root);
+        }
+    }
+
+    /**
+     * Depth-first walk keeping one cursor per level, so iteration allocates O(depth).
+     */
+    private static final class Walker<T> implements Iterator<T> {
+
+        private final ArrayDeque<Object[]> arrays = new ArrayDeque<>();
+        private final ArrayDeque<int[]> cursors = new ArrayDeque<>();
+        private Object next;
+
+        private Walker(Node root) {
+            push(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (next == null) throw new NoSuchElementException();
+            Object current = next;
+            advance();
+            return (T) current;
+        }
+
+        private void push(Node node) {
+            arrays.push(node instanceof BitmapNode bitmap ? bitmap.slots : ((CollisionNode) node).elements);
+            cursors.push(new int[1]);
+        }
+
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] slots = arrays.peek();
+                int[] cursor = cursors.peek();
+                if (cursor[0] >= slots.length) {
+                    arrays.pop();
+                    cursors.pop();
+                    continue;
+                }
+                Object slot = slots[cursor[0]++];
+                if (slot instanceof Node child) {
+                    push(child);
+                } else {
+                    next = slot;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -2,47 +2,147 @@ package me.a8kj.flux.template.concurrent;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A central service for handling asynchronous tasks safely.
+ *
+ * <p>Services share one async-mode {@link java.util.concurrent.ForkJoinPool} unless they pass
+ * their own {@link ServiceExecutor}, which keeps blocking work in one service from starving the
+ * others and gives each service its own {@link #metrics()}.</p>
  */
 public abstract class AsyncService {
 
+    private final ServiceExecutor executor;
 
-    private static final Executor SERVICE_EXECUTOR = new ForkJoinPool(
-            Math.min(Short.MAX_VALUE, Runtime.getRuntime().availableProcessors()),
-            ForkJoinPool.defaultForkJoinWorkerThreadFactory,
-            null,
-            true
-    );
+    protected AsyncService() {
+        this(ServiceExecutor.shared());
+    }
+
+    protected AsyncService(@NotNull ServiceExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns queue depth, load and failure counts of this service's executor.
+     */
+    public ServiceExecutor.Metrics metrics() {
+        return executor.metrics();
+    }
+
+    protected ServiceExecutor executor() {
+        return executor;
+    }
 
     /**
      * Executes a task asynchronously and returns a Promise.
      */
     protected <T> Promise<T> async(@NotNull Catching.Supplier<T> supplier) {
-        return Promise.of(CompletableFuture.supplyAsync(() -> {
-            try {
-                return supplier.get();
-            } catch (Exception e) {
-                throw (e instanceof RuntimeException rx) ? rx : new CompletionException(e);
-            }
-        }, SERVICE_EXECUTOR));
+        try {
+            return Promise.of(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return supplier.get();
+                } catch (Exception e) {
+                    executor.recordFailure();
+                    throw (e instanceof RuntimeException rx) ? rx : new CompletionException(e);
+                }
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            return Promise.of(CompletableFuture.failedFuture(e));
+        }
     }
 
     /**
      * Executes a void task asynchronously.
      */
     protected Promise<Void> async(@NotNull Catching.Runnable runnable) {
-        return Promise.of(CompletableFuture.runAsync(() -> {
+        try {
+            return Promise.of(CompletableFuture.runAsync(() -> {
+                try {
+                    runnable.run();
+                } catch (Exception e) {
+                    executor.recordFailure();
+                    throw (e instanceof RuntimeException rx) ? rx : new CompletionException(e);
+                }
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            return Promise.of(CompletableFuture.failedFuture(e));
+        }
+    }
+
+    /**
+     * Applies {@code function} to every item with at most {@code maxParallelism} running at once,
+     * and completes with the results in the items' order. The first failure fails the promise
+     * and stops items that have not started yet.
+     */
+    protected <T, R> Promise<List<R>> asyncAll(@NotNull Collection<? extends T> items,
+                                               @NotNull Catching.Function<? super T, ? extends R> function,
+                                               int maxParallelism) {
+        if (maxParallelism <= 0) throw new IllegalArgumentException("Parallelism must be positive");
+
+        List<T> inputs = new ArrayList<>(items);
+        int count = inputs.size();
+        CompletableFuture<List<R>> result = new CompletableFuture<>();
+        if (count == 0) {
+            result.complete(List.of());
+            return Promise.of(result);
+        }
+
+        Object[] outputs = new Object[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(count);
+
+        Runnable worker = new Runnable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run() {
+                if (result.isDone()) return;
+                int index = next.getAndIncrement();
+                if (index >= count) return;
+
+                try {
+                    outputs[index] = function.apply(inputs.get(index));
+                } catch (Throwable t) {
+                    executor.recordFailure();
+                    result.completeExceptionally(t);
+                    return;
+                }
+
+                if (remaining.decrementAndGet() == 0) {
+                    List<R> ordered = new ArrayList<>(count);
+                    for (Object output : outputs) {
+                        ordered.add((R) output);
+                    }
+                    result.complete(ordered);
+                } else {
+                    // Yield the thread between items so one bulk call cannot monopolize the executor.
+                    submit(this);
+                }
+            }
+
+            private void submit(Runnable task) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        };
+
+        for (int i = 0, workers = Math.min(maxParallelism, count); i < workers; i++) {
             try {
-                runnable.run();
-            } catch (Exception e) {
-                throw (e instanceof RuntimeException rx) ? rx : new CompletionException(e);
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                break;
             }
-        }, SERVICE_EXECUTOR));
+        }
+        return Promise.of(result);
     }
-}
\ No newline at end of file
+}
@@ -19,4 +19,9 @@ public interface Catching {
     interface Consumer<T> {
         void accept(T t) throws Exception;
     }
+
+    @FunctionalInterface
+    interface Function<T, R> {
+        R apply(T t) throws Exception;
+    }
 }
\ No newline at end of file
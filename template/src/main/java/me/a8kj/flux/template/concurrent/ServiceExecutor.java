@@ -0,0 +1,130 @@
+package me.a8kj.flux.template.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link Executor} wrapper that counts what passes through it, so each {@link AsyncService}
+ * can report its own queue depth and load.
+ */
+public final class ServiceExecutor implements Executor, AutoCloseable {
+
+    /**
+     * A point-in-time copy of the executor counters.
+     */
+    public record Metrics(long queued, long active, long completed, long failed, long rejected) {
+    }
+
+    private static final class Shared {
+        private static final ServiceExecutor INSTANCE = new ServiceExecutor(new ForkJoinPool(
+                Math.min(Short.MAX_VALUE, Runtime.getRuntime().availableProcessors()),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null,
+                true
+        ), false);
+    }
+
+    private final Executor delegate;
+    private final boolean owned;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private ServiceExecutor(Executor delegate, boolean owned) {
+        this.delegate = delegate;
+        this.owned = owned;
+    }
+
+    /**
+     * The async-mode {@link ForkJoinPool} shared by services that do not configure their own.
+     */
+    public static ServiceExecutor shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * A dedicated async-mode {@link ForkJoinPool}, suited to short CPU-bound tasks.
+     */
+    public static ServiceExecutor forkJoin(int parallelism) {
+        return new ServiceExecutor(new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null, true), true);
+    }
+
+    /**
+     * One virtual thread per task, suited to blocking I/O.
+     */
+    public static ServiceExecutor virtual(@NotNull String name) {
+        return new ServiceExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory()), true);
+    }
+
+    /**
+     * A fixed number of daemon threads over a bounded queue; tasks beyond the queue are rejected.
+     */
+    public static ServiceExecutor bounded(@NotNull String name, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> Thread.ofPlatform().name(name + "-" + counter.getAndIncrement()).daemon(true).unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new ServiceExecutor(pool, true);
+    }
+
+    /**
+     * Wraps an existing executor. Closing the wrapper does not shut it down.
+     */
+    public static ServiceExecutor of(@NotNull Executor executor) {
+        return new ServiceExecutor(executor, false);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+        submitted.increment();
+        try {
+            delegate.execute(() -> {
+                started.increment();
+                try {
+                    task.run();
+                } finally {
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            submitted.decrement();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public Metrics metrics() {
+        long start = started.sum();
+        long done = completed.sum();
+        return new Metrics(Math.max(0L, submitted.sum() - start), Math.max(0L, start - done), done,
+                failed.sum(), rejected.sum());
+    }
+
+    void recordFailure() {
+        failed.increment();
+    }
+
+    /**
+     * Shuts down the underlying executor if this wrapper created it.
+     */
+    @Override
+    public void close() {
+        if (owned && delegate instanceof ExecutorService service) service.shutdown();
+    }
+}
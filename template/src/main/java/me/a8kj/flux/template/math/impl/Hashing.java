@@ -0,0 +1,53 @@
+package me.a8kj.flux.template.math.impl;
+
+/**
+ * Hash spreading and sizing shared by the primitive open-addressing stores.
+ */
+final class Hashing {
+
+    static final byte EMPTY = 0;
+    static final byte FULL = 1;
+    static final byte DELETED = 2;
+
+    static final int MIN_CAPACITY = 8;
+
+    private Hashing() {
+    }
+
+    /**
+     * Murmur3 finalizer: spreads every input bit over the whole word, so both the high bits
+     * (segment choice) and the low bits (slot choice) are well mixed.
+     */
+    static int mix(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static int mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53fe1a85ec9L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    static int powerOfTwo(int value) {
+        if (value <= 1) return 1;
+        if (value >= 1 << 30) return 1 << 30;
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Slots needed to hold {@code entries} under a 3/4 load factor.
+     */
+    static int capacityFor(int entries) {
+        return Math.max(MIN_CAPACITY, powerOfTwo((int) Math.min(1L << 30, entries * 4L / 3 + 1)));
+    }
+}
@@ -0,0 +1,313 @@
+package me.a8kj.flux.template.math.impl;
+
+import me.a8kj.flux.template.math.Metric;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A {@link Metric} keyed by primitive {@code int}s (entity IDs and the like) with {@code long} values.
+ *
+ * <p>Entries live in parallel {@code int[]}/{@code long[]} arrays probed linearly, split into
+ * segments that each own a {@link StampedLock}. Reads are optimistic and normally take no lock;
+ * writes only lock the segment the key hashes to. A slot costs 13 bytes, against roughly 80 bytes
+ * per entry (node, boxed key and boxed value) in a {@code ConcurrentHashMap<Integer, Long>}.</p>
+ *
+ * <p>The {@code int}-keyed methods never box. The inherited {@code Integer}-keyed methods and
+ * {@link #handle()} remain available for code written against {@link Metric}.</p>
+ */
+public class IntLongMetric extends OpenAddressingStore<IntLongMetric.Table> implements Metric<Integer, Long> {
+
+    /**
+     * Receives entries during {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    private final Map<Integer, Long> view = new View();
+
+    public IntLongMetric() {
+        this(64, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param expectedSize The number of entries to size the tables for up front.
+     * @param concurrency  The number of independently locked segments, rounded up to a power of two.
+     */
+    public IntLongMetric(int expectedSize, int concurrency) {
+        super(expectedSize, concurrency, Table::new);
+    }
+
+    /**
+     * Returns the value for the key, or 0 if it is missing.
+     */
+    public long value(int key) {
+        return value(key, 0L);
+    }
+
+    public long value(int key, long fallback) {
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).readBits(key, hash, fallback);
+    }
+
+    public boolean containsKey(int key) {
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).contains(key, hash);
+    }
+
+    public void put(int key, long value) {
+        update(key, value, false, false);
+    }
+
+    /**
+     * Atomically adds {@code delta} (which may be negative) and returns the new value.
+     */
+    public long addAndGet(int key, long delta) {
+        return update(key, delta, true, false);
+    }
+
+    /**
+     * Atomically subtracts {@code amount}, clamping at zero, and returns the new value.
+     */
+    public long subtractFloor(int key, long amount) {
+        if (amount < 0) throw new IllegalArgumentException("Amount must be positive");
+        return update(key, -amount, true, true);
+    }
+
+    /**
+     * @return {@code true} if an entry was removed.
+     */
+    public boolean delete(int key) {
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).delete(key, hash);
+    }
+
+    /**
+     * Visits every entry without boxing. Each segment is visited under its read lock,
+     * so the consumer must not write back into this metric.
+     */
+    public void forEach(@NotNull EntryConsumer consumer) {
+        visit((table, index) -> consumer.accept(table.keys[index], table.values[index]));
+    }
+
+    // --- Metric bridges ---
+
+    @Override
+    public @NotNull Long zero() {
+        return 0L;
+    }
+
+    @Override
+    public void set(@NotNull Integer key, @NotNull Long value) {
+        put(key, value);
+    }
+
+    @Override
+    public Optional<Long> get(@NotNull Integer key) {
+        return Optional.ofNullable(boxed(key));
+    }
+
+    @Override
+    public @NotNull Long getOrDefault(@NotNull Integer key, @NotNull Long defaultValue) {
+        Long value = boxed(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public @NotNull Long current(@NotNull Integer key) {
+        return value(key);
+    }
+
+    @Override
+    public boolean contains(@NotNull Integer key) {
+        return containsKey(key);
+    }
+
+    @Override
+    public void remove(@NotNull Integer key) {
+        delete(key);
+    }
+
+    @Override
+    public void reset(@NotNull Integer key) {
+        put(key, 0L);
+    }
+
+    @Override
+    public void add(@NotNull Integer key, int amount) {
+        if (amount < 0) throw new IllegalArgumentException("Amount must be positive");
+        addAndGet(key, amount);
+    }
+
+    @Override
+    public void subtract(@NotNull Integer key, int amount) {
+        subtractFloor(key, amount);
+    }
+
+    /**
+     * A live boxed {@code Map} view, kept for {@link Metric} compatibility. Iteration walks a
+     * per-segment snapshot. Hot paths should use the {@code int}-keyed methods.
+     */
+    @Override
+    public @NotNull Map<Integer, Long> handle() {
+        return view;
+    }
+
+    private Long boxed(int key) {
+        int hash = Hashing.mix(key);
+        return (Long) segmentFor(hash).boxed(key, hash);
+    }
+
+    private long update(int key, long operand, boolean accumulate, boolean floor) {
+        int hash = Hashing.mix(key);
+        Segment<Table> segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.find(key, hash);
+            if (index >= 0) {
+                long[] values = segment.table.values;
+                long next = accumulate ? values[index] + operand : operand;
+                if (floor && next < 0) next = 0L;
+                values[index] = next;
+                return next;
+            }
+
+            long next = accumulate && floor && operand < 0 ? 0L : operand;
+            segment.insert(key, hash, next);
+            return next;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    static final class Table extends OpenAddressingStore.Slots {
+        private final int[] keys;
+        private final long[] values;
+
+        private Table(int capacity) {
+            super(capacity);
+            this.keys = new int[capacity];
+            this.values = new long[capacity];
+        }
+
+        @Override
+        boolean holds(int index, long key) {
+            return keys[index] == key;
+        }
+
+        @Override
+        long key(int index) {
+            return keys[index];
+        }
+
+        @Override
+        int hash(int index) {
+            return Hashing.mix(keys[index]);
+        }
+
+        @Override
+        long valueBits(int index) {
+            return values[index];
+        }
+
+        @Override
+        Object box(long valueBits) {
+            return valueBits;
+        }
+
+        @Override
+        void store(int index, long key, long valueBits) {
+            keys[index] = (int) key;
+            values[index] = valueBits;
+        }
+
+        @Override
+        void clearValue(int index) {
+            values[index] = 0L;
+        }
+    }
+
+    private final class View extends AbstractMap<Integer, Long> {
+
+        @Override
+        public Long get(Object key) {
+            return key instanceof Integer id ? boxed(id) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer id && IntLongMetric.this.containsKey(id);
+        }
+
+        @Override
+        public Long put(Integer key, Long value) {
+            Long previous = get(key);
+            IntLongMetric.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public Long remove(Object key) {
+            Long previous = get(key);
+            if (previous != null) delete((Integer) key);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return IntLongMetric.this.size();
+        }
+
+        @Override
+        public void clear() {
+            IntLongMetric.this.clear();
+        }
+
+        @Override
+        public @NotNull Set<Entry<Integer, Long>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<Integer, Long>> iterator() {
+                    List<Entry<Integer, Long>> snapshot = new ArrayList<>();
+                    IntLongMetric.this.forEach((key, value) -> snapshot.add(new SimpleImmutableEntry<>(key, value)));
+                    Iterator<Entry<Integer, Long>> source = snapshot.iterator();
+                    return new Iterator<>() {
+                        private Entry<Integer, Long> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return source.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Integer, Long> next() {
+                            return last = source.next();
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) throw new IllegalStateException();
+                            delete(last.getKey());
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return IntLongMetric.this.size();
+                }
+            };
+        }
+    }
+}
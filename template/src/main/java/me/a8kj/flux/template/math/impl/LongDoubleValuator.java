@@ -0,0 +1,310 @@
+package me.a8kj.flux.template.math.impl;
+
+import me.a8kj.flux.template.math.Valuator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * A {@link Valuator} keyed by primitive {@code long}s with {@code double} values.
+ *
+ * <p>Uses the same layout as {@link IntLongMetric}: parallel primitive arrays probed linearly,
+ * split into {@link StampedLock}-guarded segments with optimistic reads. The {@code long}-keyed
+ * methods never box; {@link #accumulate(long, double, double, DoubleBinaryOperator)} applies its
+ * operator atomically under the segment lock.</p>
+ */
+public class LongDoubleValuator extends OpenAddressingStore<LongDoubleValuator.Table> implements Valuator<Long, Double> {
+
+    /**
+     * Receives entries during {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, double value);
+    }
+
+    private final Map<Long, Double> view = new View();
+
+    public LongDoubleValuator() {
+        this(64, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param expectedSize The number of entries to size the tables for up front.
+     * @param concurrency  The number of independently locked segments, rounded up to a power of two.
+     */
+    public LongDoubleValuator(int expectedSize, int concurrency) {
+        super(expectedSize, concurrency, Table::new);
+    }
+
+    public double value(long key, double fallback) {
+        int hash = Hashing.mix(key);
+        return Double.longBitsToDouble(segmentFor(hash).readBits(key, hash, Double.doubleToRawLongBits(fallback)));
+    }
+
+    public boolean containsKey(long key) {
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).contains(key, hash);
+    }
+
+    public void put(long key, double value) {
+        int hash = Hashing.mix(key);
+        Segment<Table> segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.find(key, hash);
+            if (index >= 0) {
+                segment.table.values[index] = value;
+            } else {
+                segment.insert(key, hash, Double.doubleToRawLongBits(value));
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically replaces the value with {@code operator(current, operand)}, where a missing
+     * entry reads as {@code identity}, and returns the stored result.
+     */
+    public double accumulate(long key, double identity, double operand, @NotNull DoubleBinaryOperator operator) {
+        int hash = Hashing.mix(key);
+        Segment<Table> segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.find(key, hash);
+            double[] values = segment.table.values;
+            double next = operator.applyAsDouble(index >= 0 ? values[index] : identity, operand);
+            if (index >= 0) {
+                values[index] = next;
+            } else {
+                segment.insert(key, hash, Double.doubleToRawLongBits(next));
+            }
+            return next;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Shorthand for {@code accumulate(key, 0, delta, Double::sum)}.
+     */
+    public double addAndGet(long key, double delta) {
+        return accumulate(key, 0.0, delta, Double::sum);
+    }
+
+    public void putWithFloor(long key, double value, double floor) {
+        put(key, Math.max(value, floor));
+    }
+
+    public boolean isGreater(long key, double comparison) {
+        return value(key, Double.NaN) > comparison;
+    }
+
+    /**
+     * @return {@code true} if an entry was removed.
+     */
+    public boolean delete(long key) {
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).delete(key, hash);
+    }
+
+    /**
+     * Visits every entry without boxing. Each segment is visited under its read lock,
+     * so the consumer must not write back into this valuator.
+     */
+    public void forEach(@NotNull EntryConsumer consumer) {
+        visit((table, index) -> consumer.accept(table.keys[index], table.values[index]));
+    }
+
+    // --- Valuator bridges ---
+
+    @Override
+    public void set(@NotNull Long key, @NotNull Double value) {
+        put(key, value);
+    }
+
+    @Override
+    public Optional<Double> get(@NotNull Long key) {
+        return Optional.ofNullable(boxed(key));
+    }
+
+    @Override
+    public @NotNull Double getOrDefault(@NotNull Long key, @NotNull Double defaultValue) {
+        Double value = boxed(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean contains(@NotNull Long key) {
+        return containsKey(key);
+    }
+
+    @Override
+    public void remove(@NotNull Long key) {
+        delete(key);
+    }
+
+    /**
+     * Same contract as {@link Valuator#compute}, but applied atomically under the segment lock.
+     */
+    @Override
+    public void compute(@NotNull Long key, @NotNull Double identity, @NotNull BinaryOperator<Double> accumulator) {
+        accumulate(key, identity, identity, accumulator::apply);
+    }
+
+    @Override
+    public void setWithFloor(@NotNull Long key, @NotNull Double value, @NotNull Double floor) {
+        putWithFloor(key, value, floor);
+    }
+
+    @Override
+    public boolean isGreater(@NotNull Long key, @NotNull Double comparison) {
+        return isGreater(key.longValue(), comparison.doubleValue());
+    }
+
+    /**
+     * A live boxed {@code Map} view, kept for {@link Valuator} compatibility. Iteration walks a
+     * per-segment snapshot. Hot paths should use the {@code long}-keyed methods.
+     */
+    @Override
+    public @NotNull Map<Long, Double> handle() {
+        return view;
+    }
+
+    private Double boxed(long key) {
+        int hash = Hashing.mix(key);
+        return (Double) segmentFor(hash).boxed(key, hash);
+    }
+
+    static final class Table extends OpenAddressingStore.Slots {
+        private final long[] keys;
+        private final double[] values;
+
+        private Table(int capacity) {
+            super(capacity);
+            this.keys = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        @Override
+        boolean holds(int index, long key) {
+            return keys[index] == key;
+        }
+
+        @Override
+        long key(int index) {
+            return keys[index];
+        }
+
+        @Override
+        int hash(int index) {
+            return Hashing.mix(keys[index]);
+        }
+
+        @Override
+        long valueBits(int index) {
+            return Double.doubleToRawLongBits(values[index]);
+        }
+
+        @Override
+        Object box(long valueBits) {
+            return Double.longBitsToDouble(valueBits);
+        }
+
+        @Override
+        void store(int index, long key, long valueBits) {
+            keys[index] = key;
+            values[index] = Double.longBitsToDouble(valueBits);
+        }
+
+        @Override
+        void clearValue(int index) {
+            values[index] = 0.0;
+        }
+    }
+
+    private final class View extends AbstractMap<Long, Double> {
+
+        @Override
+        public Double get(Object key) {
+            return key instanceof Long id ? boxed(id) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long id && LongDoubleValuator.this.containsKey(id);
+        }
+
+        @Override
+        public Double put(Long key, Double value) {
+            Double previous = get(key);
+            LongDoubleValuator.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public Double remove(Object key) {
+            Double previous = get(key);
+            if (previous != null) delete((Long) key);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return LongDoubleValuator.this.size();
+        }
+
+        @Override
+        public void clear() {
+            LongDoubleValuator.this.clear();
+        }
+
+        @Override
+        public @NotNull Set<Entry<Long, Double>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<Long, Double>> iterator() {
+                    List<Entry<Long, Double>> snapshot = new ArrayList<>();
+                    LongDoubleValuator.this.forEach((key, value) -> snapshot.add(new SimpleImmutableEntry<>(key, value)));
+                    Iterator<Entry<Long, Double>> source = snapshot.iterator();
+                    return new Iterator<>() {
+                        private Entry<Long, Double> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return source.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Long, Double> next() {
+                            return last = source.next();
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) throw new IllegalStateException();
+                            delete(last.getKey());
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return LongDoubleValuator.this.size();
+                }
+            };
+        }
+    }
+}
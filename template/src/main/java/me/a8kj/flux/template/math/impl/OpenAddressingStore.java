@@ -0,0 +1,278 @@
+package me.a8kj.flux.template.math.impl;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+import static me.a8kj.flux.template.math.impl.Hashing.DELETED;
+import static me.a8kj.flux.template.math.impl.Hashing.EMPTY;
+import static me.a8kj.flux.template.math.impl.Hashing.FULL;
+
+/**
+ * The segmented open-addressing table behind the primitive-keyed stores.
+ *
+ * <p>Entries live in parallel arrays probed linearly, split into segments that each own a
+ * {@link StampedLock}. Reads are optimistic and normally take no lock; writes only lock the
+ * segment the key hashes to. Removals leave tombstones that the next rehash drops.</p>
+ *
+ * <p>Keys travel through this class widened to {@code long} and values as raw {@code long}
+ * bits, so nothing is boxed; each subclass only decides how its {@link Slots} store them.</p>
+ *
+ * @param <T> The subclass's slot arrays.
+ */
+abstract class OpenAddressingStore<T extends OpenAddressingStore.Slots> {
+
+    /**
+     * One generation of a segment's arrays. Subclasses add the key and value arrays.
+     */
+    abstract static class Slots {
+        final byte[] states;
+        final int mask;
+
+        Slots(int capacity) {
+            this.states = new byte[capacity];
+            this.mask = capacity - 1;
+        }
+
+        abstract boolean holds(int index, long key);
+
+        abstract long key(int index);
+
+        abstract int hash(int index);
+
+        abstract long valueBits(int index);
+
+        abstract Object box(long valueBits);
+
+        abstract void store(int index, long key, long valueBits);
+
+        abstract void clearValue(int index);
+    }
+
+    @FunctionalInterface
+    interface SlotVisitor<T> {
+        void visit(T slots, int index);
+    }
+
+    private final Segment<T>[] segments;
+    private final int shift;
+
+    /**
+     * @param expectedSize The number of entries to size the tables for up front.
+     * @param concurrency  The number of independently locked segments, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    OpenAddressingStore(int expectedSize, int concurrency, IntFunction<T> tables) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        if (concurrency <= 0) throw new IllegalArgumentException("Concurrency must be positive");
+
+        int count = Hashing.powerOfTwo(Math.min(concurrency, 1 << 16));
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+        this.segments = new Segment[count];
+        int perSegment = Hashing.capacityFor(expectedSize / count + 1);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(tables, perSegment);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment<T> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    final Segment<T> segmentFor(int hash) {
+        return segments[shift == 32 ? 0 : hash >>> shift];
+    }
+
+    /**
+     * Visits every full slot, each segment under its read lock.
+     */
+    final void visit(SlotVisitor<? super T> visitor) {
+        for (Segment<T> segment : segments) {
+            segment.forEach(visitor);
+        }
+    }
+
+    /**
+     * Subclasses write through {@link #lock} and {@link #table} directly, calling
+     * {@link #find} and {@link #insert} while holding the write lock.
+     */
+    static final class Segment<T extends Slots> {
+
+        final StampedLock lock = new StampedLock();
+        private final IntFunction<T> tables;
+        private final int initialCapacity;
+        T table;
+        private int size;
+        private int used;
+
+        private Segment(IntFunction<T> tables, int capacity) {
+            this.tables = tables;
+            this.initialCapacity = capacity;
+            this.table = tables.apply(capacity);
+        }
+
+        long readBits(long key, int hash, long fallback) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                T t = table;
+                int index = find(t, key, hash);
+                long result = index >= 0 ? t.valueBits(index) : fallback;
+                if (lock.validate(stamp)) return result;
+            }
+            stamp = lock.readLock();
+            try {
+                T t = table;
+                int index = find(t, key, hash);
+                return index >= 0 ? t.valueBits(index) : fallback;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Object boxed(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                T t = table;
+                int index = find(t, key, hash);
+                long bits = index >= 0 ? t.valueBits(index) : 0L;
+                if (lock.validate(stamp)) return index >= 0 ? t.box(bits) : null;
+            }
+            stamp = lock.readLock();
+            try {
+                T t = table;
+                int index = find(t, key, hash);
+                return index >= 0 ? t.box(t.valueBits(index)) : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean contains(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                boolean found = find(table, key, hash) >= 0;
+                if (lock.validate(stamp)) return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean delete(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                T t = table;
+                int index = find(t, key, hash);
+                if (index < 0) return false;
+                t.states[index] = DELETED;
+                t.clearValue(index);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int find(long key, int hash) {
+            return find(table, key, hash);
+        }
+
+        /**
+         * Adds a key known to be absent. The caller holds the write lock.
+         */
+        void insert(long key, int hash, long valueBits) {
+            if ((used + 1) * 4L > table.states.length * 3L) {
+                rehash(Hashing.capacityFor(size + 1));
+            }
+
+            T t = table;
+            int index = hash & t.mask;
+            while (t.states[index] == FULL) {
+                index = (index + 1) & t.mask;
+            }
+            if (t.states[index] == EMPTY) used++;
+            t.store(index, key, valueBits);
+            t.states[index] = FULL;
+            size++;
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = tables.apply(initialCapacity);
+                size = 0;
+                used = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void forEach(SlotVisitor<? super T> visitor) {
+            long stamp = lock.readLock();
+            try {
+                T t = table;
+                for (int i = 0; i < t.states.length; i++) {
+                    if (t.states[i] == FULL) visitor.visit(t, i);
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Rebuilds into a fresh table, dropping tombstones. Growing is not needed when the
+         * load comes mostly from tombstones, in which case the capacity stays the same.
+         */
+        private void rehash(int capacity) {
+            T old = table;
+            T fresh = tables.apply(Math.max(capacity, Hashing.MIN_CAPACITY));
+            for (int i = 0; i < old.states.length; i++) {
+                if (old.states[i] != FULL) continue;
+                int index = old.hash(i) & fresh.mask;
+                while (fresh.states[index] == FULL) {
+                    index = (index + 1) & fresh.mask;
+                }
+                fresh.store(index, old.key(i), old.valueBits(i));
+                fresh.states[index] = FULL;
+            }
+            table = fresh;
+            used = size;
+        }
+
+        /**
+         * Linear probe bounded by the table length, so an optimistic read over a table that is
+         * being mutated still terminates; the caller discards the result if validation fails.
+         */
+        private static int find(Slots t, long key, int hash) {
+            int index = hash & t.mask;
+            for (int probes = 0; probes <= t.mask; probes++) {
+                byte state = t.states[index];
+                if (state == EMPTY) return -1;
+                if (state == FULL && t.holds(index, key)) return index;
+                index = (index + 1) & t.mask;
+            }
+            return -1;
+        }
+    }
+}
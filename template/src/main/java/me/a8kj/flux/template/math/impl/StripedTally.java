@@ -0,0 +1,260 @@
+package me.a8kj.flux.template.math.impl;
+
+import me.a8kj.flux.template.math.Tally;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Tally} built for heavy write contention.
+ *
+ * <p>Each key owns a striped {@link LongAdder}, so concurrent increments from many threads
+ * land on separate padded cells instead of fighting over one boxed {@code Long}. Once a key
+ * exists, updating it allocates nothing.</p>
+ *
+ * <p>Additions are never lost. Subtractions, resets and transfers serialize on the key's
+ * counter and read its sum under that lock; since additions can only raise the value, a
+ * counter can never be driven below zero.</p>
+ *
+ * @param <K> The key type used to categorize the counts.
+ */
+public class StripedTally<K> implements Tally<K> {
+
+    private final ConcurrentHashMap<K, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<K, Long> view = new View();
+
+    /**
+     * Gets the current count for a key without boxing.
+     *
+     * @param key The key to look up.
+     * @return The current value, or 0 if no record exists.
+     */
+    @Override
+    public long count(@NotNull K key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    /**
+     * Atomically increases a value by a specific amount.
+     *
+     * @param key    The key to increase.
+     * @param amount The positive value to add.
+     * @throws IllegalArgumentException if amount is negative.
+     */
+    @Override
+    public void add(@NotNull K key, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Addition amount must be positive. Use subtract() for negative changes.");
+        }
+        counter(key).add(amount);
+    }
+
+    /**
+     * Atomically decreases a value, clamping it at zero.
+     *
+     * @param key    The key to decrease.
+     * @param amount The amount to remove.
+     */
+    @Override
+    public void subtract(@NotNull K key, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Subtraction amount must be positive.");
+        }
+        Counter counter = counters.get(key);
+        if (counter == null || amount == 0) return;
+
+        synchronized (counter) {
+            long taken = Math.min(amount, counter.sum());
+            if (taken > 0) counter.add(-taken);
+        }
+    }
+
+    /**
+     * Moves {@code amount} from one key to another only if the source holds at least that much.
+     * The check and the withdrawal happen atomically with respect to other subtractions.
+     */
+    @Override
+    public void transfer(@NotNull K from, @NotNull K to, long amount) {
+        tryTransfer(from, to, amount);
+    }
+
+    /**
+     * Same as {@link #transfer(Object, Object, long)}, reporting whether the amount moved.
+     *
+     * @return {@code true} if the source had enough and the amount was moved.
+     */
+    public boolean tryTransfer(@NotNull K from, @NotNull K to, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive.");
+        }
+        if (from.equals(to)) return count(from) >= amount;
+
+        Counter source = counters.get(from);
+        if (source == null) return amount == 0;
+
+        synchronized (source) {
+            if (source.sum() < amount) return false;
+            source.add(-amount);
+        }
+        counter(to).add(amount);
+        return true;
+    }
+
+    /**
+     * Resets the counter back to zero. Increments that race with the reset are kept.
+     */
+    @Override
+    public void reset(@NotNull K key) {
+        Counter counter = counters.get(key);
+        if (counter == null) return;
+
+        synchronized (counter) {
+            counter.add(-counter.sum());
+        }
+    }
+
+    /**
+     * Replaces the value. Increments that race with the update are applied on top of it.
+     */
+    @Override
+    public void set(@NotNull K key, @NotNull Long value) {
+        put(key, value.longValue());
+    }
+
+    /**
+     * Unboxed variant of {@link #set(Object, Long)}.
+     */
+    public void put(@NotNull K key, long value) {
+        Counter counter = counter(key);
+        synchronized (counter) {
+            counter.add(value - counter.sum());
+        }
+    }
+
+    /**
+     * Returns the sum of every counter without boxing.
+     */
+    public long total() {
+        long total = 0L;
+        for (Counter counter : counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Optional<Long> get(@NotNull K key) {
+        Counter counter = counters.get(key);
+        return counter == null ? Optional.empty() : Optional.of(counter.sum());
+    }
+
+    @Override
+    public @NotNull Long getOrDefault(@NotNull K key, @NotNull Long defaultValue) {
+        Counter counter = counters.get(key);
+        return counter == null ? defaultValue : counter.sum();
+    }
+
+    @Override
+    public boolean contains(@NotNull K key) {
+        return counters.containsKey(key);
+    }
+
+    @Override
+    public void remove(@NotNull K key) {
+        counters.remove(key);
+    }
+
+    /**
+     * A live {@code Map<K, Long>} view over the counters. Values are boxed on read,
+     * so hot paths should prefer {@link #count(Object)}.
+     */
+    @Override
+    public @NotNull Map<K, Long> handle() {
+        return view;
+    }
+
+    private Counter counter(K key) {
+        Counter counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new Counter());
+    }
+
+    private static final class Counter extends LongAdder {
+    }
+
+    private final class View extends AbstractMap<K, Long> {
+
+        @Override
+        public Long get(Object key) {
+            Counter counter = counters.get(key);
+            return counter == null ? null : counter.sum();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return counters.containsKey(key);
+        }
+
+        @Override
+        public Long put(K key, Long value) {
+            Long previous = get(key);
+            StripedTally.this.put(key, value.longValue());
+            return previous;
+        }
+
+        @Override
+        public Long remove(Object key) {
+            Counter counter = counters.remove(key);
+            return counter == null ? null : counter.sum();
+        }
+
+        @Override
+        public int size() {
+            return counters.size();
+        }
+
+        @Override
+        public void clear() {
+            counters.clear();
+        }
+
+        @Override
+        public @NotNull Set<Entry<K, Long>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<K, Long>> iterator() {
+                    Iterator<Entry<K, Counter>> source = counters.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return source.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, Long> next() {
+                            Entry<K, Counter> entry = source.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().sum());
+                        }
+
+                        @Override
+                        public void remove() {
+                            source.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return counters.size();
+                }
+            };
+        }
+    }
+}
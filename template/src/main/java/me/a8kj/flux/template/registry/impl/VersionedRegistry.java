@@ -0,0 +1,249 @@
+package me.a8kj.flux.template.registry.impl;
+
+import lombok.NonNull;
+import me.a8kj.flux.template.Pair;
+import me.a8kj.flux.template.registry.Registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Registry} that publishes an immutable, array-backed {@link Snapshot} on every write.
+ *
+ * <p>Readers grab the current snapshot with a single volatile read and can walk it by index
+ * without allocating. {@link #asMap()} and {@link #entries()} return views built once per
+ * write, not per call. Each snapshot carries a version that increases with every published
+ * change, so callers can cache anything they derive from it and rebuild only when it moves.</p>
+ *
+ * <p>Writes are serialized. {@link #batch(Consumer)} applies several changes as one snapshot
+ * and one listener notification.</p>
+ */
+public class VersionedRegistry<K, V> implements Registry<K, V> {
+
+    /**
+     * One entry that changed in a batch. {@code previous} is null for a new key and
+     * {@code current} is null for a removed key.
+     */
+    public record Change<K, V>(K key, V previous, V current) {
+    }
+
+    /**
+     * Called after a batch has been published, on the writing thread and in version order.
+     */
+    @FunctionalInterface
+    public interface Listener<K, V> {
+        void onChange(@NonNull Snapshot<K, V> snapshot, @NonNull List<Change<K, V>> changes);
+    }
+
+    /**
+     * Collects the changes of one {@link #batch(Consumer)} call.
+     */
+    public interface Editor<K, V> {
+        void register(@NonNull K key, @NonNull V value);
+
+        void unregister(@NonNull K key);
+    }
+
+    /**
+     * An immutable view of the registry at one version.
+     */
+    public static final class Snapshot<K, V> {
+
+        private static final Snapshot<?, ?> EMPTY = new Snapshot<>(0L, new Pair<?, ?>[0]);
+
+        private final long version;
+        private final Pair<K, V>[] entries;
+        private final Map<K, V> map;
+        private final List<Pair<K, V>> list;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(long version, Pair<?, ?>[] entries) {
+            this.version = version;
+            this.entries = (Pair<K, V>[]) entries;
+            Map<K, V> index = new LinkedHashMap<>(Math.max(4, entries.length * 4 / 3 + 1));
+            for (Pair<K, V> entry : this.entries) {
+                index.put(entry.key(), entry.value());
+            }
+            this.map = Collections.unmodifiableMap(index);
+            this.list = Collections.unmodifiableList(Arrays.asList(this.entries));
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return entries.length;
+        }
+
+        public K key(int index) {
+            return entries[index].key();
+        }
+
+        public V value(int index) {
+            return entries[index].value();
+        }
+
+        public Pair<K, V> entry(int index) {
+            return entries[index];
+        }
+
+        public V get(K key) {
+            return map.get(key);
+        }
+
+        public Map<K, V> asMap() {
+            return map;
+        }
+
+        public List<Pair<K, V>> entries() {
+            return list;
+        }
+    }
+
+    private final List<Listener<K, V>> listeners = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private volatile Snapshot<K, V> snapshot = (Snapshot<K, V>) Snapshot.EMPTY;
+
+    /**
+     * Returns the current snapshot. Holding on to it is safe; later writes publish a new one.
+     */
+    public Snapshot<K, V> snapshot() {
+        return snapshot;
+    }
+
+    public long version() {
+        return snapshot.version;
+    }
+
+    public void addListener(@NonNull Listener<K, V> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener<K, V> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void register(@NonNull K key, @NonNull V value) {
+        batch(editor -> editor.register(key, value));
+    }
+
+    @Override
+    public void unregister(@NonNull K key) {
+        batch(editor -> editor.unregister(key));
+    }
+
+    /**
+     * Applies every change made through the editor as a single new snapshot, then notifies
+     * listeners once with the net changes. Nothing is published if the batch changes nothing.
+     */
+    public synchronized void batch(@NonNull Consumer<Editor<K, V>> changes) {
+        Snapshot<K, V> base = snapshot;
+        Map<K, Pair<K, V>> working = new LinkedHashMap<>(Math.max(4, base.size() * 4 / 3 + 1));
+        for (Pair<K, V> entry : base.entries) {
+            working.put(entry.key(), entry);
+        }
+
+        changes.accept(new Editor<>() {
+            @Override
+            public void register(@NonNull K key, @NonNull V value) {
+                Pair<K, V> existing = working.get(key);
+                if (existing == null || existing.value() != value) working.put(key, new Pair<>(key, value));
+            }
+
+            @Override
+            public void unregister(@NonNull K key) {
+                working.remove(key);
+            }
+        });
+
+        List<Change<K, V>> diff = diff(base, working);
+        if (diff.isEmpty()) return;
+
+        Snapshot<K, V> next = new Snapshot<>(base.version + 1, working.values().toArray(new Pair<?, ?>[0]));
+        snapshot = next;
+
+        List<Change<K, V>> published = Collections.unmodifiableList(diff);
+        for (Listener<K, V> listener : listeners) {
+            listener.onChange(next, published);
+        }
+    }
+
+    @Override
+    public boolean hasEntry(@NonNull K key) {
+        return snapshot.map.containsKey(key);
+    }
+
+    @Override
+    public @NonNull Optional<V> get(@NonNull K key) {
+        return Optional.ofNullable(snapshot.map.get(key));
+    }
+
+    @Override
+    public @NonNull Map<K, V> asMap() {
+        return snapshot.map;
+    }
+
+    @Override
+    public @NonNull Iterable<Pair<K, V>> entries() {
+        return snapshot.list;
+    }
+
+    @Override
+    public void forEach(@NonNull BiConsumer<K, V> action) {
+        Pair<K, V>[] entries = snapshot.entries;
+        for (Pair<K, V> entry : entries) {
+            action.accept(entry.key(), entry.value());
+        }
+    }
+
+    @Override
+    public Optional<V> find(@NonNull Predicate<V> predicate) {
+        Pair<K, V>[] entries = snapshot.entries;
+        for (Pair<K, V> entry : entries) {
+            if (predicate.test(entry.value())) return Optional.of(entry.value());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Stream<V> stream() {
+        return Arrays.stream(snapshot.entries).map(Pair::value);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.entries.length;
+    }
+
+    private static <K, V> List<Change<K, V>> diff(Snapshot<K, V> base, Map<K, Pair<K, V>> working) {
+        List<Change<K, V>> changes = new ArrayList<>();
+        for (Pair<K, V> before : base.entries) {
+            Pair<K, V> after = working.get(before.key());
+            if (after == null) {
+                changes.add(new Change<>(before.key(), before.value(), null));
+            } else if (after != before && !Objects.equals(after.value(), before.value())) {
+                changes.add(new Change<>(before.key(), before.value(), after.value()));
+            }
+        }
+        for (Pair<K, V> after : working.values()) {
+            if (!base.map.containsKey(after.key())) {
+                changes.add(new Change<>(after.key(), null, after.value()));
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,132 @@
+package me.a8kj.flux.template.storage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Binary encoding of keys or values for persisted repositories.
+ *
+ * <p>{@link #read(ByteBuffer)} receives a buffer positioned at the start of the value and limited
+ * to exactly {@link #size(Object)} bytes, so implementations may read it directly without copying.</p>
+ *
+ * @param <T> The encoded type.
+ */
+public interface Codec<T> {
+
+    /**
+     * Returns how many bytes {@link #write(Object, ByteBuffer)} will produce for the value.
+     */
+    int size(@NotNull T value);
+
+    void write(@NotNull T value, @NotNull ByteBuffer buffer);
+
+    @NotNull T read(@NotNull ByteBuffer buffer);
+
+    Codec<Integer> INT = new Codec<>() {
+        @Override
+        public int size(@NotNull Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(@NotNull Integer value, @NotNull ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public @NotNull Integer read(@NotNull ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int size(@NotNull Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(@NotNull Long value, @NotNull ByteBuffer buffer) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public @NotNull Long read(@NotNull ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public int size(@NotNull Double value) {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(@NotNull Double value, @NotNull ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public @NotNull Double read(@NotNull ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+    };
+
+    Codec<UUID> UNIQUE_ID = new Codec<>() {
+        @Override
+        public int size(@NotNull UUID value) {
+            return 2 * Long.BYTES;
+        }
+
+        @Override
+        public void write(@NotNull UUID value, @NotNull ByteBuffer buffer) {
+            buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+        }
+
+        @Override
+        public @NotNull UUID read(@NotNull ByteBuffer buffer) {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+    };
+
+    /**
+     * UTF-8 with no length prefix; the record framing already carries the size.
+     */
+    Codec<String> STRING = new Codec<>() {
+        @Override
+        public int size(@NotNull String value) {
+            int bytes = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    bytes += 1;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 3;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 1; // unpaired surrogates are encoded as '?'
+                }
+            }
+            return bytes;
+        }
+
+        @Override
+        public void write(@NotNull String value, @NotNull ByteBuffer buffer) {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public @NotNull String read(@NotNull ByteBuffer buffer) {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    };
+}
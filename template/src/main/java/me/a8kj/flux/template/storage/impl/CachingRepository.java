@@ -0,0 +1,470 @@
+package me.a8kj.flux.template.storage.impl;
+
+import lombok.extern.java.Log;
+import me.a8kj.flux.template.storage.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, expiring read cache in front of a slower {@link Repository}.
+ *
+ * <p>Once the cache is full, a new key only gets in if a count-min sketch says it is requested
+ * more often than the victim, which is the least frequently used of a small sample taken by a
+ * sweeping cursor (TinyLFU admission). Frequencies are halved periodically so old popularity
+ * fades. Entries can also expire a fixed time after they were written or last read.</p>
+ *
+ * <p>Writes go to the backing store immediately by default. With
+ * {@link Builder#writeBehind(int, long, TimeUnit)} they are coalesced per key and flushed in
+ * batches from a background thread; reads see pending writes before they reach the store.</p>
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+@Log
+public class CachingRepository<K, V> implements Repository<K, V>, AutoCloseable {
+
+    private static final int SAMPLE = 8;
+    private static final int STAMP_STRIPES = 64;
+    private static final Object REMOVED = new Object();
+
+    /**
+     * A point-in-time copy of the cache counters.
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, long rejections,
+                        long flushedWrites, long failedFlushes) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Entry<V> {
+        private volatile V value;
+        private volatile long written;
+        private volatile long accessed;
+
+        private Entry(V value, long now) {
+            this.value = value;
+            this.written = now;
+            this.accessed = now;
+        }
+    }
+
+    private final Repository<K, V> delegate;
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final int writeBatch;
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Object> pending = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private Iterator<Map.Entry<K, Entry<V>>> sweep;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private CachingRepository(Builder<K, V> builder) {
+        this.delegate = builder.delegate;
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.writeBatch = builder.writeBatch;
+        this.sketch = new FrequencySketch(builder.maximumSize);
+
+        if (builder.flushIntervalNanos > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> Thread.ofPlatform()
+                    .name("flux-cache-write-behind")
+                    .daemon(true)
+                    .unstarted(r));
+            flusher.scheduleWithFixedDelay(this::flushQuietly,
+                    builder.flushIntervalNanos, builder.flushIntervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public static <K, V> Builder<K, V> builder(@NotNull Repository<K, V> delegate) {
+        return new Builder<>(delegate);
+    }
+
+    @Override
+    public Optional<V> get(@NotNull K key) {
+        sketch.increment(key.hashCode());
+        long now = System.nanoTime();
+
+        Entry<V> entry = cache.get(key);
+        if (entry != null) {
+            if (!expired(entry, now)) {
+                if (expireAfterAccessNanos > 0) entry.accessed = now;
+                hits.increment();
+                return Optional.of(entry.value);
+            }
+            if (cache.remove(key, entry)) expirations.increment();
+        }
+        misses.increment();
+
+        int stripe = stripe(key);
+        long stamp = writeStamps.get(stripe);
+        Object queued = pending.get(key);
+        if (queued != null) {
+            return queued == REMOVED ? Optional.empty() : Optional.of(cast(queued));
+        }
+
+        Optional<V> loaded = delegate.get(key);
+        loaded.ifPresent(value -> fill(key, value, now, stripe, stamp));
+        return loaded;
+    }
+
+    @Override
+    public @NotNull V getOrDefault(@NotNull K key, @NotNull V defaultValue) {
+        return get(key).orElse(defaultValue);
+    }
+
+    @Override
+    public boolean contains(@NotNull K key) {
+        return get(key).isPresent();
+    }
+
+    @Override
+    public void set(@NotNull K key, @NotNull V value) {
+        sketch.increment(key.hashCode());
+        long now = System.nanoTime();
+
+        writeStamps.incrementAndGet(stripe(key));
+        Entry<V> updated = cache.computeIfPresent(key, (k, entry) -> {
+            entry.value = value;
+            entry.written = now;
+            entry.accessed = now;
+            return entry;
+        });
+        if (updated == null && !admit(key, value, now)) cache.remove(key);
+        write(key, value);
+    }
+
+    @Override
+    public void remove(@NotNull K key) {
+        writeStamps.incrementAndGet(stripe(key));
+        cache.remove(key);
+        write(key, REMOVED);
+    }
+
+    /**
+     * Returns the backing store's map. Writes still queued for write-behind are not visible
+     * here until {@link #flush()} runs.
+     */
+    @Override
+    public @NotNull Map<K, V> handle() {
+        return delegate.handle();
+    }
+
+    /**
+     * Drops every cached entry without touching the backing store.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public void invalidate(@NotNull K key) {
+        cache.remove(key);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Writes every pending write-behind change to the backing store. A change stays visible to
+     * reads until its write has gone through, and changes that fail stay queued. Flushes run one
+     * at a time, so a slower one can never overwrite a newer value with the one it read earlier.
+     *
+     * @return The number of changes written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+            int written = 0;
+            for (Map.Entry<K, Object> change : pending.entrySet()) {
+                K key = change.getKey();
+                Object value = change.getValue();
+
+                try {
+                    if (value == REMOVED) {
+                        delegate.remove(key);
+                    } else {
+                        delegate.set(key, cast(value));
+                    }
+                } catch (RuntimeException e) {
+                    failedFlushes.increment();
+                    throw e;
+                }
+                pending.remove(key, value);
+                written++;
+                flushedWrites.increment();
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), rejections.sum(),
+                flushedWrites.sum(), failedFlushes.sum());
+    }
+
+    /**
+     * Stops the write-behind thread after flushing whatever is still pending.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) flusher.shutdown();
+        flush();
+    }
+
+    private void write(K key, Object value) {
+        if (flusher == null) {
+            if (value == REMOVED) {
+                delegate.remove(key);
+            } else {
+                delegate.set(key, cast(value));
+            }
+            return;
+        }
+
+        pending.put(key, value);
+        if (pending.size() >= writeBatch && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warning("[Flux] Write-behind flush failed, changes stay queued: " + e);
+        }
+    }
+
+    /**
+     * Caches a value written by {@link #set(Object, Object)}, replacing whatever is there.
+     *
+     * @return False if the admission policy turned the key away.
+     */
+    private boolean admit(K key, V value, long now) {
+        if (!makeRoom(key, now)) return false;
+        cache.put(key, new Entry<>(value, now));
+        return true;
+    }
+
+    /**
+     * Caches a value loaded from the backing store, unless the key was written after the load
+     * started or is already cached. Writes always win over read-through fills.
+     */
+    private void fill(K key, V value, long now, int stripe, long stamp) {
+        if (writeStamps.get(stripe) != stamp || !makeRoom(key, now)) return;
+        cache.compute(key, (k, existing) ->
+                existing != null || writeStamps.get(stripe) != stamp ? existing : new Entry<>(value, now));
+    }
+
+    private boolean makeRoom(K key, long now) {
+        if (cache.size() < maximumSize) return true;
+
+        evictionLock.lock();
+        try {
+            K victim = selectVictim(now);
+            if (victim != null && cache.size() >= maximumSize) {
+                if (sketch.frequency(key.hashCode()) <= sketch.frequency(victim.hashCode())) {
+                    rejections.increment();
+                    return false;
+                }
+                if (cache.remove(victim) != null) evictions.increment();
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode() * 0x9e3779b9;
+        return (h ^ (h >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    /**
+     * Advances the sweeping cursor over up to {@link #SAMPLE} entries, dropping expired ones on
+     * the way, and returns the least frequently used of the rest.
+     */
+    private K selectVictim(long now) {
+        K victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SAMPLE; i++) {
+            if (sweep == null || !sweep.hasNext()) {
+                sweep = cache.entrySet().iterator();
+                if (!sweep.hasNext()) break;
+            }
+            Map.Entry<K, Entry<V>> candidate = sweep.next();
+            if (expired(candidate.getValue(), now)) {
+                if (cache.remove(candidate.getKey(), candidate.getValue())) expirations.increment();
+                continue;
+            }
+            int frequency = sketch.frequency(candidate.getKey().hashCode());
+            if (frequency < victimFrequency) {
+                victim = candidate.getKey();
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private boolean expired(Entry<V> entry, long now) {
+        return (expireAfterWriteNanos > 0 && now - entry.written >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos > 0 && now - entry.accessed >= expireAfterAccessNanos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * A 4-bit count-min sketch of depth four. Counters are updated without synchronization;
+     * an occasional lost increment only makes the estimate slightly lower.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {0x97cb3127L, 0xb492b66fL, 0x9ae16a3bL, 0xcbf29ce4L};
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maximumSize) {
+            int size = Math.max(64, Integer.highestOneBit(Math.max(1, maximumSize) - 1) << 1);
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * Math.max(1, maximumSize);
+        }
+
+        private int frequency(int hash) {
+            int spread = spread(hash);
+            int min = Integer.MAX_VALUE;
+            for (int depth = 0; depth < 4; depth++) {
+                int index = index(spread, depth);
+                int shift = counterShift(spread, depth);
+                min = Math.min(min, (int) ((table[index] >>> shift) & 0xF));
+            }
+            return min;
+        }
+
+        private void increment(int hash) {
+            int spread = spread(hash);
+            boolean added = false;
+            for (int depth = 0; depth < 4; depth++) {
+                int index = index(spread, depth);
+                int shift = counterShift(spread, depth);
+                long word = table[index];
+                if (((word >>> shift) & 0xF) != 0xF) {
+                    table[index] = word + (1L << shift);
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        /**
+         * Halves every counter so that stale popularity decays.
+         */
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+        }
+
+        private int index(int spread, int depth) {
+            long h = (spread + SEEDS[depth]) * SEEDS[depth];
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private static int counterShift(int spread, int depth) {
+            return (((spread >>> (depth << 3)) & 3) << 2) + (depth << 4);
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 17);
+        }
+    }
+
+    public static final class Builder<K, V> {
+
+        private final Repository<K, V> delegate;
+        private int maximumSize = 10_000;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private int writeBatch = Integer.MAX_VALUE;
+        private long flushIntervalNanos;
+
+        private Builder(Repository<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        public Builder<K, V> maximumSize(int maximumSize) {
+            if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder<K, V> expireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Queues writes and flushes them once {@code batchSize} keys are pending or every
+         * {@code interval}, whichever comes first.
+         */
+        public Builder<K, V> writeBehind(int batchSize, long interval, TimeUnit unit) {
+            if (batchSize <= 0 || interval <= 0) {
+                throw new IllegalArgumentException("Batch size and interval must be positive");
+            }
+            this.writeBatch = batchSize;
+            this.flushIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        public CachingRepository<K, V> build() {
+            return new CachingRepository<>(this);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package me.a8kj.flux.template.storage.impl;
+
+import me.a8kj.flux.template.concurrent.AsyncService;
+import me.a8kj.flux.template.concurrent.Promise;
+import me.a8kj.flux.template.math.Tally;
+import me.a8kj.flux.template.storage.Codec;
+import me.a8kj.flux.template.storage.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Persists a {@link Repository} to a memory-mapped, append-only checkpoint file.
+ *
+ * <p>Writes made through a {@link #track(Repository) tracked} repository (or reported with
+ * {@link #markDirty(Object)}) mark their key dirty. A {@link #checkpoint(Repository) checkpoint}
+ * swaps out the dirty set, appends the current value of each dirty key (or a tombstone if it is
+ * gone) and only then publishes the new committed length in the header. Marking a key dirty
+ * never takes a lock, so writers keep running while a checkpoint is in progress.</p>
+ *
+ * <p>{@link #restore(RecordVisitor)} walks the committed region of the mapped file and hands
+ * out slices of it; nothing is copied until a codec decodes it. Later records for the same key
+ * win. {@link #compact(Repository)} rewrites the file with one record per live entry once the
+ * log has grown too long.</p>
+ *
+ * <pre>
+ * header  : int magic | int version | long committed | long generation | padding to 64 bytes
+ * record  : int keyLength | int valueLength (-1 for a removal) | key | value
+ * </pre>
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class MappedCheckpointStore<K, V> extends AsyncService implements AutoCloseable {
+
+    private static final int MAGIC = 0x464C5843; // "FLXC"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int COMMITTED_OFFSET = 8;
+    private static final int GENERATION_OFFSET = 16;
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+    private static final long WRITE_WINDOW = 64L << 20;
+    private static final long READ_WINDOW = 1L << 30;
+
+    /**
+     * Receives raw records during a restore. The buffers are read-only slices of the mapped
+     * file and are only valid for the duration of the call.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(@NotNull ByteBuffer key, @Nullable ByteBuffer value);
+    }
+
+    private final Path file;
+    private final Codec<K> keys;
+    private final Codec<V> values;
+    private final AtomicReference<Set<K>> dirty = new AtomicReference<>(ConcurrentHashMap.newKeySet());
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long committed;
+    private long generation;
+
+    public MappedCheckpointStore(@NotNull Path file, @NotNull Codec<K> keys, @NotNull Codec<V> values) {
+        this.file = file;
+        this.keys = keys;
+        this.values = values;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open checkpoint file " + file, e);
+        }
+    }
+
+    /**
+     * Records that {@code key} changed and must be written by the next checkpoint.
+     */
+    public void markDirty(@NotNull K key) {
+        Set<K> current = dirty.get();
+        current.add(key);
+        // A checkpoint may have swapped the set between get() and add(); make sure the key is not lost.
+        Set<K> latest = dirty.get();
+        if (latest != current) latest.add(key);
+    }
+
+    /**
+     * Wraps a repository so that every {@code set} and {@code remove} marks its key dirty.
+     */
+    public @NotNull Repository<K, V> track(@NotNull Repository<K, V> repository) {
+        return new TrackedRepository<>(this, repository);
+    }
+
+    /**
+     * Wraps a tally so that every update marks its key dirty. Updates still go to the tally's own
+     * methods, so an atomic implementation stays atomic.
+     */
+    public static <K> @NotNull Tally<K> track(@NotNull MappedCheckpointStore<K, Long> store, @NotNull Tally<K> tally) {
+        return new TrackedTally<>(store, tally);
+    }
+
+    public int pendingKeys() {
+        return dirty.get().size();
+    }
+
+    public synchronized long committedBytes() {
+        return committed;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Appends every dirty key's current value and commits the result.
+     *
+     * @return The number of records written.
+     */
+    public synchronized int checkpoint(@NotNull Repository<K, V> source) {
+        Set<K> pending = dirty.getAndSet(ConcurrentHashMap.newKeySet());
+        if (pending.isEmpty()) return 0;
+
+        long position = committed;
+        int written = 0;
+        try {
+            for (K key : pending) {
+                position = append(position, key, source.get(key).orElse(null));
+                written++;
+            }
+            commit(position);
+        } catch (IOException | RuntimeException e) {
+            pending.forEach(this::markDirty);
+            throw e instanceof IOException io ? new UncheckedIOException("Checkpoint failed", io) : (RuntimeException) e;
+        }
+        return written;
+    }
+
+    /**
+     * Runs {@link #checkpoint(Repository)} on the service executor.
+     */
+    public Promise<Integer> checkpointAsync(@NotNull Repository<K, V> source) {
+        return async(() -> checkpoint(source));
+    }
+
+    /**
+     * Rewrites the file with one record per entry of {@code source} and swaps it in atomically.
+     * Keys that change while compacting stay dirty and are written by the next checkpoint.
+     *
+     * @return The number of records in the compacted file.
+     */
+    public synchronized int compact(@NotNull Repository<K, V> source) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".compact");
+        boolean swapped = false;
+        try {
+            Files.deleteIfExists(temporary);
+            int written = 0;
+            try (MappedCheckpointStore<K, V> target = new MappedCheckpointStore<>(temporary, keys, values)) {
+                target.truncate();
+                long position = HEADER;
+                for (Map.Entry<K, V> entry : source.handle().entrySet()) {
+                    position = target.append(position, entry.getKey(), entry.getValue());
+                    written++;
+                }
+                target.generation = generation;
+                target.commit(position);
+            }
+
+            release();
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                swapped = true;
+            } finally {
+                // Maps the compacted file, or the untouched original if the move failed
+                open();
+            }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Compaction failed", e);
+        } finally {
+            if (!swapped) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams every committed record, oldest first, without copying it out of the mapping.
+     *
+     * @return The number of records visited.
+     */
+    public synchronized long restore(@NotNull RecordVisitor visitor) {
+        long position = HEADER;
+        long count = 0;
+        MappedByteBuffer region = null;
+        long regionStart = 0;
+        try {
+            while (position < committed) {
+                if (region == null || position + RECORD_HEADER > regionStart + region.capacity()) {
+                    regionStart = position;
+                    region = map(FileChannel.MapMode.READ_ONLY, position, Math.min(committed - position, READ_WINDOW));
+                }
+                int offset = (int) (position - regionStart);
+                int keyLength = region.getInt(offset);
+                int valueLength = region.getInt(offset + Integer.BYTES);
+                long length = RECORD_HEADER + (long) keyLength + Math.max(0, valueLength);
+
+                if (position + length > regionStart + region.capacity()) {
+                    regionStart = position;
+                    region = map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(committed - position, Math.max(length, READ_WINDOW)));
+                    offset = 0;
+                }
+
+                int keyStart = offset + RECORD_HEADER;
+                ByteBuffer key = region.slice(keyStart, keyLength).asReadOnlyBuffer();
+                ByteBuffer value = valueLength == TOMBSTONE
+                        ? null
+                        : region.slice(keyStart + keyLength, valueLength).asReadOnlyBuffer();
+                visitor.visit(key, value);
+
+                position += length;
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Restore failed", e);
+        }
+        return count;
+    }
+
+    /**
+     * Decodes every committed record into {@code target}, applying removals as they appear.
+     * Pass the plain repository rather than its {@link #track tracked} view, or every restored
+     * key will be rewritten by the next checkpoint.
+     */
+    public long restore(@NotNull Repository<K, V> target) {
+        return restore((key, value) -> {
+            K decoded = keys.read(key);
+            if (value == null) {
+                target.remove(decoded);
+            } else {
+                target.set(decoded, values.read(value));
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            release();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() < HEADER;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+
+        if (fresh) {
+            header.putInt(0, MAGIC).putInt(4, VERSION).putLong(COMMITTED_OFFSET, HEADER).putLong(GENERATION_OFFSET, 0L);
+            header.force();
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a checkpoint file (or unsupported version): " + file);
+        }
+
+        committed = header.getLong(COMMITTED_OFFSET);
+        generation = header.getLong(GENERATION_OFFSET);
+        window = null;
+    }
+
+    private void truncate() throws IOException {
+        channel.truncate(HEADER);
+        committed = HEADER;
+    }
+
+    private void release() throws IOException {
+        window = null;
+        header = null;
+        if (channel != null && channel.isOpen()) channel.close();
+    }
+
+    private long append(long position, K key, @Nullable V value) throws IOException {
+        int keyLength = keys.size(key);
+        int valueLength = value == null ? TOMBSTONE : values.size(value);
+        long length = RECORD_HEADER + (long) keyLength + Math.max(0, valueLength);
+
+        if (window == null || position < windowStart || position + length > windowStart + window.capacity()) {
+            // commit() only forces the current window, so records in the outgoing one go out now
+            if (window != null) window.force();
+            windowStart = position;
+            window = map(FileChannel.MapMode.READ_WRITE, position, Math.max(length, WRITE_WINDOW));
+        }
+
+        ByteBuffer record = window.slice((int) (position - windowStart), (int) length);
+        record.putInt(keyLength).putInt(valueLength);
+        keys.write(key, record);
+        if (value != null) values.write(value, record);
+        if (record.hasRemaining()) {
+            throw new IllegalStateException("Codec wrote fewer bytes than its size() reported for " + key);
+        }
+        return position + length;
+    }
+
+    /**
+     * Flushes the records first, then the header, so a crash never exposes a partial record.
+     * Earlier windows of the same checkpoint were already forced when {@link #append} left them.
+     */
+    private void commit(long position) throws IOException {
+        if (window != null) window.force();
+        committed = position;
+        generation++;
+        header.putLong(COMMITTED_OFFSET, committed).putLong(GENERATION_OFFSET, generation);
+        header.force();
+    }
+
+    private MappedByteBuffer map(FileChannel.MapMode mode, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) throw new IOException("Record of " + length + " bytes is too large");
+        return channel.map(mode, position, length);
+    }
+
+    private record TrackedRepository<K, V>(MappedCheckpointStore<K, V> store,
+                                           Repository<K, V> delegate) implements Repository<K, V> {
+
+        @Override
+        public @NotNull Map<K, V> handle() {
+            return delegate.handle();
+        }
+
+        @Override
+        public void set(@NotNull K key, @NotNull V value) {
+            delegate.set(key, value);
+            store.markDirty(key);
+        }
+
+        @Override
+        public Optional<V> get(@NotNull K key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public @NotNull V getOrDefault(@NotNull K key, @NotNull V defaultValue) {
+            return delegate.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public void remove(@NotNull K key) {
+            delegate.remove(key);
+            store.markDirty(key);
+        }
+
+        @Override
+        public boolean contains(@NotNull K key) {
+            return delegate.contains(key);
+        }
+    }
+
+    private record TrackedTally<K>(MappedCheckpointStore<K, Long> store, Tally<K> delegate) implements Tally<K> {
+
+        @Override
+        public @NotNull Map<K, Long> handle() {
+            return delegate.handle();
+        }
+
+        @Override
+        public void set(@NotNull K key, @NotNull Long value) {
+            delegate.set(key, value);
+            store.markDirty(key);
+        }
+
+        @Override
+        public Optional<Long> get(@NotNull K key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public @NotNull Long getOrDefault(@NotNull K key, @NotNull Long defaultValue) {
+            return delegate.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public void remove(@NotNull K key) {
+            delegate.remove(key);
+            store.markDirty(key);
+        }
+
+        @Override
+        public boolean contains(@NotNull K key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public long count(@NotNull K key) {
+            return delegate.count(key);
+        }
+
+        @Override
+        public void add(@NotNull K key, long amount) {
+            delegate.add(key, amount);
+            store.markDirty(key);
+        }
+
+        @Override
+        public void subtract(@NotNull K key, long amount) {
+            delegate.subtract(key, amount);
+            store.markDirty(key);
+        }
+
+        @Override
+        public void reset(@NotNull K key) {
+            delegate.reset(key);
+            store.markDirty(key);
+        }
+
+        @Override
+        public void transfer(@NotNull K from, @NotNull K to, long amount) {
+            delegate.transfer(from, to, amount);
+            store.markDirty(from);
+            store.markDirty(to);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package me.a8kj.flux.template.timed;
+
+import java.time.Instant;
+
+/**
+ * A {@link Timestamped} that stores its timestamp as primitive epoch nanoseconds, with 0 meaning unset.
+ * The {@link Instant} accessors are bridges that allocate; hot paths should use the primitive ones.
+ */
+public interface EpochTimestamped extends Timestamped {
+
+    long getTimestampNanos();
+
+    void setTimestampNanos(long epochNanos);
+
+    /**
+     * Stamps this object with the current time of the given source.
+     */
+    default void stamp(TimeSource source) {
+        setTimestampNanos(source.epochNanos());
+    }
+
+    /**
+     * Stamps this object using the shared coarse clock.
+     */
+    default void stamp() {
+        stamp(TimeSource.coarse());
+    }
+
+    default long getTimestampMillis() {
+        return getTimestampNanos() / 1_000_000L;
+    }
+
+    @Override
+    default Instant getTimestamp() {
+        long nanos = getTimestampNanos();
+        return nanos == 0L ? null : TimeSource.toInstant(nanos);
+    }
+
+    @Override
+    default void setTimestamp(Instant timestamp) {
+        setTimestampNanos(timestamp == null ? 0L : TimeSource.toEpochNanos(timestamp));
+    }
+}
@@ -0,0 +1,61 @@
+package me.a8kj.flux.template.timed;
+
+import java.time.Instant;
+
+/**
+ * A {@link Traceable} that stores origin and latest as primitive epoch nanoseconds, with 0 meaning unset.
+ * {@link #trace()} reads the shared coarse clock, so it costs one volatile read and allocates nothing.
+ */
+public interface EpochTraceable extends Traceable {
+
+    long getOriginNanos();
+
+    void setOriginNanos(long epochNanos);
+
+    long getLatestNanos();
+
+    void setLatestNanos(long epochNanos);
+
+    default void trace(TimeSource source) {
+        long now = source.epochNanos();
+        if (getOriginNanos() == 0L) {
+            setOriginNanos(now);
+        }
+        setLatestNanos(now);
+    }
+
+    @Override
+    default void trace() {
+        trace(TimeSource.coarse());
+    }
+
+    /**
+     * Nanoseconds between the first and the latest trace.
+     */
+    default long elapsedNanos() {
+        long origin = getOriginNanos();
+        return origin == 0L ? 0L : getLatestNanos() - origin;
+    }
+
+    @Override
+    default Instant getOrigin() {
+        long nanos = getOriginNanos();
+        return nanos == 0L ? null : TimeSource.toInstant(nanos);
+    }
+
+    @Override
+    default void setOrigin(Instant instant) {
+        setOriginNanos(instant == null ? 0L : TimeSource.toEpochNanos(instant));
+    }
+
+    @Override
+    default Instant getLatest() {
+        long nanos = getLatestNanos();
+        return nanos == 0L ? null : TimeSource.toInstant(nanos);
+    }
+
+    @Override
+    default void setLatest(Instant instant) {
+        setLatestNanos(instant == null ? 0L : TimeSource.toEpochNanos(instant));
+    }
+}
@@ -0,0 +1,67 @@
+package me.a8kj.flux.template.timed;
+
+import me.a8kj.flux.template.timed.impl.CoarseClock;
+import me.a8kj.flux.template.timed.impl.ManualClock;
+import me.a8kj.flux.template.timed.impl.SystemClock;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A source of wall-clock time expressed as primitive epoch values.
+ *
+ * <p>Use {@link #coarse()} on hot paths: reading it is a single volatile load, at the cost of
+ * being up to one tick behind. {@link #system()} asks the OS every time, and {@link #manual(long)}
+ * only moves when told to, which keeps tests deterministic.</p>
+ */
+public interface TimeSource {
+
+    /**
+     * Nanoseconds since the epoch.
+     */
+    long epochNanos();
+
+    /**
+     * Milliseconds since the epoch.
+     */
+    default long epochMillis() {
+        return epochNanos() / 1_000_000L;
+    }
+
+    /**
+     * Allocates an {@link Instant}; prefer the primitive accessors on hot paths.
+     */
+    default Instant instant() {
+        return toInstant(epochNanos());
+    }
+
+    static TimeSource system() {
+        return SystemClock.INSTANCE;
+    }
+
+    /**
+     * Returns the shared coarse clock, refreshed every millisecond by a daemon thread.
+     */
+    static TimeSource coarse() {
+        return CoarseClock.shared();
+    }
+
+    /**
+     * Creates a dedicated coarse clock refreshed at the given resolution. Close it to stop its ticker.
+     */
+    static CoarseClock coarse(long resolution, TimeUnit unit) {
+        return new CoarseClock(unit.toNanos(resolution));
+    }
+
+    static ManualClock manual(long epochNanos) {
+        return new ManualClock(epochNanos);
+    }
+
+    static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+}
@@ -0,0 +1,71 @@
+package me.a8kj.flux.template.timed.impl;
+
+import me.a8kj.flux.template.timed.TimeSource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A clock whose value is cached in a volatile field and refreshed by a daemon ticker thread.
+ *
+ * <p>Reads never call into the OS and never allocate. The ticker derives time from
+ * {@link System#nanoTime()} and resynchronizes with the wall clock once a second, so the value
+ * never runs backwards between resyncs and is at most one resolution behind.</p>
+ */
+public final class CoarseClock implements TimeSource, AutoCloseable {
+
+    private static final long RESYNC_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final class Shared {
+        private static final CoarseClock INSTANCE = new CoarseClock(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long now;
+    private volatile boolean running = true;
+
+    public CoarseClock(long resolutionNanos) {
+        if (resolutionNanos <= 0) throw new IllegalArgumentException("Resolution must be positive");
+        this.resolutionNanos = resolutionNanos;
+        this.now = SystemClock.INSTANCE.epochNanos();
+        this.ticker = Thread.ofPlatform()
+                .name("flux-coarse-clock")
+                .daemon(true)
+                .start(this::tick);
+    }
+
+    public static CoarseClock shared() {
+        return Shared.INSTANCE;
+    }
+
+    @Override
+    public long epochNanos() {
+        return now;
+    }
+
+    public long resolutionNanos() {
+        return resolutionNanos;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        long baseEpoch = now;
+        long baseMonotonic = System.nanoTime();
+        while (running) {
+            LockSupport.parkNanos(resolutionNanos);
+            long elapsed = System.nanoTime() - baseMonotonic;
+            if (elapsed >= RESYNC_NANOS) {
+                baseEpoch = Math.max(now, SystemClock.INSTANCE.epochNanos());
+                baseMonotonic = System.nanoTime();
+                elapsed = 0;
+            }
+            now = Math.max(now, baseEpoch + elapsed);
+        }
+    }
+}
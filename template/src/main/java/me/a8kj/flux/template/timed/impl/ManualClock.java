@@ -0,0 +1,36 @@
+package me.a8kj.flux.template.timed.impl;
+
+import me.a8kj.flux.template.timed.TimeSource;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that only moves when told to, for deterministic tests.
+ */
+public final class ManualClock implements TimeSource {
+
+    private final AtomicLong now;
+
+    public ManualClock(long epochNanos) {
+        this.now = new AtomicLong(epochNanos);
+    }
+
+    @Override
+    public long epochNanos() {
+        return now.get();
+    }
+
+    public void set(long epochNanos) {
+        now.set(epochNanos);
+    }
+
+    public long advance(long amount, TimeUnit unit) {
+        return now.addAndGet(unit.toNanos(amount));
+    }
+
+    public long advance(Duration duration) {
+        return now.addAndGet(duration.toNanos());
+    }
+}
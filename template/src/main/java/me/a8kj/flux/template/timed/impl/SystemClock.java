@@ -0,0 +1,34 @@
+package me.a8kj.flux.template.timed.impl;
+
+import me.a8kj.flux.template.timed.TimeSource;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Reads the system clock on every call.
+ */
+public final class SystemClock implements TimeSource {
+
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private static final Clock UTC = Clock.systemUTC();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long epochNanos() {
+        return TimeSource.toEpochNanos(UTC.instant());
+    }
+
+    @Override
+    public long epochMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public Instant instant() {
+        return UTC.instant();
+    }
+}